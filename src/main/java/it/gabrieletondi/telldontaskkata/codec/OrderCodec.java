@@ -0,0 +1,337 @@
+package it.gabrieletondi.telldontaskkata.codec;
+
+import static it.gabrieletondi.telldontaskkata.codec.Varints.readSigned;
+import static it.gabrieletondi.telldontaskkata.codec.Varints.readSignedInt;
+import static it.gabrieletondi.telldontaskkata.codec.Varints.readUnsignedInt;
+import static it.gabrieletondi.telldontaskkata.codec.Varints.writeSigned;
+import static it.gabrieletondi.telldontaskkata.codec.Varints.writeUnsigned;
+
+import it.gabrieletondi.telldontaskkata.domain.Money;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.OrderItem;
+import it.gabrieletondi.telldontaskkata.domain.OrderStatus;
+import it.gabrieletondi.telldontaskkata.domain.OrderTransitions;
+import it.gabrieletondi.telldontaskkata.domain.OrderWriter;
+import it.gabrieletondi.telldontaskkata.domain.Price;
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary form of an {@link Order}:
+ *
+ * <pre>
+ * order   = id:svarint status:byte currency:string total:svarlong tax:svarlong version:svarlong
+ *           itemCount:varint item*
+ * item    = productRef quantity:svarint taxedAmount:svarlong taxAmount:svarlong
+ * product = name:string price:decimal taxPercentage:decimal
+ * string  = length:varint utf8Bytes
+ * decimal = scale:svarint unscaled:svarlong
+ * </pre>
+ *
+ * Money travels as its minor units. A {@code productRef} is {@code 0} followed by a product the first time
+ * a product appears in an order, and its 1-based position among the products of that order afterwards.
+ *
+ * <p>Encoding writes straight into the buffer and decoding reads straight from it; a codec reuses its
+ * lookup tables between messages and caches the products and strings it decoded, so it is not thread
+ * safe.
+ */
+public final class OrderCodec {
+
+  private static final int DECODED_CACHE_SIZE = 1024;
+
+  private final Encoder encoder = new Encoder();
+  private final DecodedProducts decodedProducts = new DecodedProducts(DECODED_CACHE_SIZE);
+  private final DecodedStrings decodedStrings = new DecodedStrings(DECODED_CACHE_SIZE);
+  private Product[] orderProducts = new Product[16];
+
+  /**
+   * @throws java.nio.BufferOverflowException when {@code out} has no room left for the order
+   */
+  public void encode(Order order, ByteBuffer out) {
+    encoder.start(out);
+    order.writeTo(encoder);
+  }
+
+  public Order decode(ByteBuffer in) {
+    final int id = readSignedInt(in);
+    final OrderStatus status = OrderTransitions.statusWithCode(in.get());
+    final String currency = decodedStrings.read(in);
+    final Money total = Money.ofMinorUnits(readSigned(in));
+    final Money tax = Money.ofMinorUnits(readSigned(in));
+    final long version = readSigned(in);
+    final int itemCount = readUnsignedInt(in);
+    final List<OrderItem> items = new ArrayList<>(itemCount);
+    int productCount = 0;
+    for (int i = 0; i < itemCount; i++) {
+      final int productRef = readUnsignedInt(in);
+      final Product product;
+      if (productRef == 0) {
+        product = decodedProducts.read(in, decodedStrings);
+        if (productCount == orderProducts.length) {
+          orderProducts = Arrays.copyOf(orderProducts, productCount * 2);
+        }
+        orderProducts[productCount++] = product;
+      } else {
+        product = orderProducts[productRef - 1];
+      }
+      items.add(new OrderItem(product, readSignedInt(in), Money.ofMinorUnits(readSigned(in)),
+          Money.ofMinorUnits(readSigned(in))));
+    }
+    Arrays.fill(orderProducts, 0, productCount, null);
+    return new Order(id, status, items, currency, total, tax, version);
+  }
+
+  private static void writeString(ByteBuffer out, String value) {
+    final int length = value.length();
+    for (int i = 0; i < length; i++) {
+      if (value.charAt(i) >= 0x80) {
+        final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeUnsigned(out, utf8.length);
+        out.put(utf8);
+        return;
+      }
+    }
+    writeUnsigned(out, length);
+    for (int i = 0; i < length; i++) {
+      out.put((byte) value.charAt(i));
+    }
+  }
+
+  private static final class Encoder implements OrderWriter {
+
+    private ByteBuffer out;
+    private final ProductTable products = new ProductTable();
+    private final UnscaledValues unscaledValues = new UnscaledValues(256);
+
+    void start(ByteBuffer out) {
+      this.out = out;
+      products.clear();
+    }
+
+    @Override
+    public void order(int id, OrderStatus status, String currency, Money total, Money tax, long version,
+        int items) {
+      writeSigned(out, id);
+      out.put((byte) status.code());
+      writeString(out, currency);
+      writeSigned(out, total.minorUnits());
+      writeSigned(out, tax.minorUnits());
+      writeSigned(out, version);
+      writeUnsigned(out, items);
+    }
+
+    @Override
+    public void item(String productName, BigDecimal price, BigDecimal taxPercentage, int quantity,
+        Money taxedAmount, Money taxAmount) {
+      final int productRef = products.refOf(productName, price, taxPercentage);
+      writeUnsigned(out, productRef);
+      if (productRef == 0) {
+        writeString(out, productName);
+        writeDecimal(price);
+        writeDecimal(taxPercentage);
+      }
+      writeSigned(out, quantity);
+      writeSigned(out, taxedAmount.minorUnits());
+      writeSigned(out, taxAmount.minorUnits());
+    }
+
+    private void writeDecimal(BigDecimal value) {
+      writeSigned(out, value.scale());
+      writeSigned(out, unscaledValues.of(value));
+    }
+  }
+
+  /**
+   * Direct-mapped cache of unscaled values by decimal instance. {@link BigDecimal#unscaledValue()} allocates
+   * a {@code BigInteger} on every call, while prices are shared by every order of their product.
+   */
+  private static final class UnscaledValues {
+
+    private final BigDecimal[] decimals;
+    private final long[] unscaled;
+
+    UnscaledValues(int size) {
+      decimals = new BigDecimal[size];
+      unscaled = new long[size];
+    }
+
+    long of(BigDecimal value) {
+      final int slot = System.identityHashCode(value) & decimals.length - 1;
+      if (decimals[slot] != value) {
+        unscaled[slot] = value.unscaledValue().longValueExact();
+        decimals[slot] = value;
+      }
+      return unscaled[slot];
+    }
+  }
+
+  /**
+   * Products already written in the current order, by name, price and tax percentage.
+   */
+  private static final class ProductTable {
+
+    private String[] names = new String[16];
+    private BigDecimal[] prices = new BigDecimal[16];
+    private BigDecimal[] taxPercentages = new BigDecimal[16];
+    private int[] refs = new int[16];
+    private int size;
+
+    void clear() {
+      if (size > 0) {
+        Arrays.fill(names, null);
+        Arrays.fill(prices, null);
+        Arrays.fill(taxPercentages, null);
+        Arrays.fill(refs, 0);
+        size = 0;
+      }
+    }
+
+    /**
+     * Returns the 1-based ref of an already written product, or 0 after recording a new one.
+     */
+    int refOf(String name, BigDecimal price, BigDecimal taxPercentage) {
+      final int mask = refs.length - 1;
+      for (int slot = name.hashCode() * 0x9E3779B9 >>> 16 & mask; ; slot = slot + 1 & mask) {
+        if (refs[slot] == 0) {
+          if (size + 1 > refs.length * 3 / 4) {
+            grow();
+            return refOf(name, price, taxPercentage);
+          }
+          names[slot] = name;
+          prices[slot] = price;
+          taxPercentages[slot] = taxPercentage;
+          refs[slot] = ++size;
+          return 0;
+        }
+        if (names[slot].equals(name) && prices[slot].equals(price) && taxPercentages[slot].equals(taxPercentage)) {
+          return refs[slot];
+        }
+      }
+    }
+
+    private void grow() {
+      final String[] oldNames = names;
+      final BigDecimal[] oldPrices = prices;
+      final BigDecimal[] oldTaxPercentages = taxPercentages;
+      final int[] oldRefs = refs;
+      final int capacity = refs.length * 2;
+      names = new String[capacity];
+      prices = new BigDecimal[capacity];
+      taxPercentages = new BigDecimal[capacity];
+      refs = new int[capacity];
+      final int mask = capacity - 1;
+      for (int i = 0; i < oldRefs.length; i++) {
+        if (oldRefs[i] != 0) {
+          int slot = oldNames[i].hashCode() * 0x9E3779B9 >>> 16 & mask;
+          while (refs[slot] != 0) {
+            slot = slot + 1 & mask;
+          }
+          names[slot] = oldNames[i];
+          prices[slot] = oldPrices[i];
+          taxPercentages[slot] = oldTaxPercentages[i];
+          refs[slot] = oldRefs[i];
+        }
+      }
+    }
+  }
+
+  /**
+   * Direct-mapped cache of decoded strings keyed by their UTF-8 bytes, so a repeated string is neither
+   * copied nor decoded again.
+   */
+  private static final class DecodedStrings {
+
+    private final byte[][] keys;
+    private final String[] values;
+
+    DecodedStrings(int size) {
+      keys = new byte[size][];
+      values = new String[size];
+    }
+
+    String read(ByteBuffer in) {
+      final int length = readUnsignedInt(in);
+      final int start = in.position();
+      in.position(start + length);
+      final int slot = hashOf(in, start, length) & keys.length - 1;
+      if (matches(keys[slot], in, start, length)) {
+        return values[slot];
+      }
+      final byte[] key = copyOf(in, start, length);
+      keys[slot] = key;
+      values[slot] = new String(key, StandardCharsets.UTF_8);
+      return values[slot];
+    }
+  }
+
+  /**
+   * Direct-mapped cache of decoded products keyed by their encoded form, so repeated products come back as
+   * the same immutable instance.
+   */
+  private static final class DecodedProducts {
+
+    private final byte[][] keys;
+    private final Product[] values;
+
+    DecodedProducts(int size) {
+      keys = new byte[size][];
+      values = new Product[size];
+    }
+
+    Product read(ByteBuffer in, DecodedStrings strings) {
+      final int start = in.position();
+      final int nameLength = readUnsignedInt(in);
+      in.position(in.position() + nameLength);
+      final int priceScale = readSignedInt(in);
+      final long priceUnscaled = readSigned(in);
+      final int taxScale = readSignedInt(in);
+      final long taxUnscaled = readSigned(in);
+      final int length = in.position() - start;
+      final int slot = hashOf(in, start, length) & keys.length - 1;
+      if (matches(keys[slot], in, start, length)) {
+        return values[slot];
+      }
+      final int end = in.position();
+      in.position(start);
+      final String name = strings.read(in);
+      in.position(end);
+      keys[slot] = copyOf(in, start, length);
+      values[slot] = new Product(name, new Price(BigDecimal.valueOf(priceUnscaled, priceScale),
+          BigDecimal.valueOf(taxUnscaled, taxScale)));
+      return values[slot];
+    }
+  }
+
+  private static int hashOf(ByteBuffer in, int start, int length) {
+    int hash = 1;
+    for (int i = start; i < start + length; i++) {
+      hash = 31 * hash + in.get(i);
+    }
+    return hash * 0x9E3779B9 >>> 16;
+  }
+
+  private static boolean matches(byte[] key, ByteBuffer in, int start, int length) {
+    if (key == null || key.length != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (key[i] != in.get(start + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static byte[] copyOf(ByteBuffer in, int start, int length) {
+    final byte[] copy = new byte[length];
+    for (int i = 0; i < length; i++) {
+      copy[i] = in.get(start + i);
+    }
+    return copy;
+  }
+}
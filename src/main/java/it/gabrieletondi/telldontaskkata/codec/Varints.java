@@ -0,0 +1,58 @@
+package it.gabrieletondi.telldontaskkata.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * LEB128 variable-length integers: seven bits per byte, least significant group first, high bit set on
+ * every byte but the last. Signed values go through zigzag encoding first so small negatives stay short.
+ */
+final class Varints {
+
+  private Varints() {
+  }
+
+  static void writeUnsigned(ByteBuffer out, long value) {
+    while ((value & ~0x7FL) != 0) {
+      out.put((byte) (value & 0x7F | 0x80));
+      value >>>= 7;
+    }
+    out.put((byte) value);
+  }
+
+  static void writeSigned(ByteBuffer out, long value) {
+    writeUnsigned(out, value << 1 ^ value >> 63);
+  }
+
+  static long readUnsigned(ByteBuffer in) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      final byte b = in.get();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("varint is longer than 64 bits");
+  }
+
+  static long readSigned(ByteBuffer in) {
+    final long zigzag = readUnsigned(in);
+    return zigzag >>> 1 ^ -(zigzag & 1);
+  }
+
+  static int readUnsignedInt(ByteBuffer in) {
+    final long value = readUnsigned(in);
+    if (value > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("varint does not fit an int: " + value);
+    }
+    return (int) value;
+  }
+
+  static int readSignedInt(ByteBuffer in) {
+    final long value = readSigned(in);
+    if (value != (int) value) {
+      throw new IllegalArgumentException("varint does not fit an int: " + value);
+    }
+    return (int) value;
+  }
+}
@@ -1,23 +1,16 @@
 package it.gabrieletondi.telldontaskkata.domain;
 
-import it.gabrieletondi.telldontaskkata.useCase.rejection.invariants.ApprovedOrderCannotBeRejected;
 import lombok.EqualsAndHashCode;
 
 @EqualsAndHashCode
 public class Approved implements OrderStatus {
 
-  @Override
-  public OrderStatus toRejected() {
-    throw new ApprovedOrderCannotBeRejected();
-  }
+  public static final Approved INSTANCE = new Approved();
 
-  @Override
-  public OrderStatus toApproved() {
-    return this;
-  }
+  static final int CODE = 1;
 
   @Override
-  public OrderStatus toShipped() {
-    return new Shipped();
+  public int code() {
+    return CODE;
   }
 }
@@ -1,23 +1,16 @@
 package it.gabrieletondi.telldontaskkata.domain;
 
-import it.gabrieletondi.telldontaskkata.useCase.shipment.invariants.OrderNotReadyForShippment;
 import lombok.EqualsAndHashCode;
 
 @EqualsAndHashCode
 public class Created implements OrderStatus {
 
-  @Override
-  public OrderStatus toRejected() {
-    return new Rejected();
-  }
+  public static final Created INSTANCE = new Created();
 
-  @Override
-  public OrderStatus toApproved() {
-    return new Approved();
-  }
+  static final int CODE = 0;
 
   @Override
-  public OrderStatus toShipped() {
-    throw new OrderNotReadyForShippment();
+  public int code() {
+    return CODE;
   }
 }
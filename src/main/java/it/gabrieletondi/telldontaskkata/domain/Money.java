@@ -0,0 +1,53 @@
+package it.gabrieletondi.telldontaskkata.domain;
+
+import static java.math.RoundingMode.HALF_UP;
+
+import java.math.BigDecimal;
+import lombok.EqualsAndHashCode;
+
+@EqualsAndHashCode
+public class Money {
+
+  public static final Money ZERO = new Money(0);
+
+  private static final int SCALE = 2;
+
+  private final long minorUnits;
+
+  private Money(long minorUnits) {
+    this.minorUnits = minorUnits;
+  }
+
+  public static Money ofMinorUnits(long minorUnits) {
+    return minorUnits == 0 ? ZERO : new Money(minorUnits);
+  }
+
+  public static Money of(BigDecimal amount) {
+    return ofMinorUnits(amount.setScale(SCALE, HALF_UP).unscaledValue().longValueExact());
+  }
+
+  static boolean isWholeMinorUnits(BigDecimal amount) {
+    return amount.scale() <= SCALE || amount.stripTrailingZeros().scale() <= SCALE;
+  }
+
+  public Money plus(Money other) {
+    return ofMinorUnits(Math.addExact(minorUnits, other.minorUnits));
+  }
+
+  public Money times(int quantity) {
+    return ofMinorUnits(Math.multiplyExact(minorUnits, quantity));
+  }
+
+  public long minorUnits() {
+    return minorUnits;
+  }
+
+  public BigDecimal toBigDecimal() {
+    return BigDecimal.valueOf(minorUnits, SCALE);
+  }
+
+  @Override
+  public String toString() {
+    return toBigDecimal().toPlainString();
+  }
+}
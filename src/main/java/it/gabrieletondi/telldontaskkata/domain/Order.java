@@ -2,7 +2,11 @@ package it.gabrieletondi.telldontaskkata.domain;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -10,24 +14,89 @@ import lombok.ToString;
 @EqualsAndHashCode
 public class Order {
 
+  private static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
   private int id;
   private OrderStatus status;
   private List<OrderItem> items;
   private String currency;
-  private BigDecimal total;
-  private BigDecimal tax;
+  private Money total;
+  private Money tax;
+  @EqualsAndHashCode.Exclude
+  private long version;
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private OrderEventListener events = OrderEventListener.NONE;
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private List<OrderStatus> transitions;
 
   public Order(int id, OrderStatus status, List<OrderItem> items, String currency, BigDecimal total, BigDecimal tax) {
+    this(id, status, items, currency, Money.of(total), Money.of(tax), 0);
+  }
+
+  public Order(int id, OrderStatus status, List<OrderItem> items, String currency, Money total, Money tax,
+      long version) {
     this.id = id;
     this.status = status;
     this.items = items;
     this.currency = currency;
     this.total = total;
     this.tax = tax;
+    this.version = version;
+  }
+
+  public static Order withoutOrderItems(int id) {
+    return new Order(id, Created.INSTANCE, new ArrayList<>(), "EUR", Money.ZERO, Money.ZERO, 0);
+  }
+
+  public static Order withLines(int id, List<OrderLine> lines) {
+    return withLines(id, lines, DEFAULT_PARALLEL_THRESHOLD);
+  }
+
+  /**
+   * Creates an order holding an item per line, in order. Above {@code parallelThreshold} lines the items and
+   * totals are computed on the common fork-join pool, in ranges of at most that many lines. Money adds exact
+   * minor units, so the totals are the same however the lines are split.
+   */
+  public static Order withLines(int id, List<OrderLine> lines, int parallelThreshold) {
+    if (parallelThreshold <= 0) {
+      throw new IllegalArgumentException("parallel threshold must be positive: " + parallelThreshold);
+    }
+    final OrderItem[] items = new OrderItem[lines.size()];
+    final ItemsTask task = new ItemsTask(lines, items, 0, items.length, parallelThreshold);
+    final Totals totals = items.length <= parallelThreshold ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+    return new Order(id, Created.INSTANCE, new ArrayList<>(Arrays.asList(items)), "EUR",
+        Money.ofMinorUnits(totals.taxed), Money.ofMinorUnits(totals.tax), 0);
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public Order withVersion(long version) {
+    return new Order(id, status, new ArrayList<>(items), currency, total, tax, version);
   }
 
-  public static Order withoutOrderItems() {
-    return new Order(1, new Created(), new ArrayList<>(), "EUR", new BigDecimal("0.00"), new BigDecimal("0.00"));
+  /**
+   * Sends every item added to and every status change of this instance to {@code listener} from now on.
+   */
+  public void publishTo(OrderEventListener listener) {
+    this.events = listener;
+  }
+
+  /**
+   * Returns the statuses this instance moved to since it was created, copied or last drained, oldest
+   * first, and forgets them.
+   */
+  public List<OrderStatus> drainTransitions() {
+    final List<OrderStatus> drained = transitions == null ? Collections.emptyList() : transitions;
+    transitions = null;
+    return drained;
   }
 
   public boolean hasId(int orderId) {
@@ -35,15 +104,46 @@ public class Order {
   }
 
   public void reject() {
-    this.status = status.toRejected();
+    tryReject().orThrow();
   }
 
   public void approve() {
-    this.status = status.toApproved();
+    tryApprove().orThrow();
   }
 
   public void ship() {
-    this.status = status.toShipped();
+    tryShip().orThrow();
+  }
+
+  public TransitionOutcome tryReject() {
+    return tryMoveTo(Rejected.INSTANCE);
+  }
+
+  public TransitionOutcome tryApprove() {
+    return tryMoveTo(Approved.INSTANCE);
+  }
+
+  public TransitionOutcome tryShip() {
+    return tryMoveTo(Shipped.INSTANCE);
+  }
+
+  public TransitionOutcome tryMoveTo(OrderStatus target) {
+    final TransitionOutcome outcome = OrderTransitions.outcome(status, target);
+    if (outcome.isApplied()) {
+      this.status = target;
+      if (transitions == null) {
+        transitions = new ArrayList<>(2);
+      }
+      transitions.add(target);
+      if (events != OrderEventListener.NONE) {
+        events.on(OrderEvent.movedTo(id, target));
+      }
+    }
+    return outcome;
+  }
+
+  public TransitionOutcome shipmentOutcome() {
+    return status.shipment();
   }
 
   public void add(Product product, int quantity) {
@@ -51,9 +151,71 @@ public class Order {
     items.add(orderItem);
     total = orderItem.addTaxedAmountTo(total);
     tax = orderItem.addTaxAmountTo(tax);
+    if (events != OrderEventListener.NONE) {
+      events.on(OrderEvent.itemAdded(id, product, quantity));
+    }
+  }
+
+  public void writeTo(OrderWriter writer) {
+    writer.order(id, status, currency, total, tax, version, items.size());
+    for (OrderItem item : items) {
+      item.writeTo(writer);
+    }
   }
 
   public boolean has(OrderStatus thatStatus) {
-    return status.equals(thatStatus);
+    return status.code() == thatStatus.code();
+  }
+
+  private static final class Totals {
+
+    private final long taxed;
+    private final long tax;
+
+    Totals(long taxed, long tax) {
+      this.taxed = taxed;
+      this.tax = tax;
+    }
+
+    Totals plus(Totals other) {
+      return new Totals(Math.addExact(taxed, other.taxed), Math.addExact(tax, other.tax));
+    }
+  }
+
+  private static final class ItemsTask extends RecursiveTask<Totals> {
+
+    private final List<OrderLine> lines;
+    private final OrderItem[] items;
+    private final int from;
+    private final int to;
+    private final int threshold;
+
+    ItemsTask(List<OrderLine> lines, OrderItem[] items, int from, int to, int threshold) {
+      this.lines = lines;
+      this.items = items;
+      this.from = from;
+      this.to = to;
+      this.threshold = threshold;
+    }
+
+    @Override
+    protected Totals compute() {
+      if (to - from > threshold) {
+        final int middle = (from + to) >>> 1;
+        final ItemsTask left = new ItemsTask(lines, items, from, middle, threshold);
+        left.fork();
+        final Totals right = new ItemsTask(lines, items, middle, to, threshold).compute();
+        return left.join().plus(right);
+      }
+      Money taxed = Money.ZERO;
+      Money tax = Money.ZERO;
+      for (int i = from; i < to; i++) {
+        final OrderItem item = lines.get(i).toItem();
+        items[i] = item;
+        taxed = item.addTaxedAmountTo(taxed);
+        tax = item.addTaxAmountTo(tax);
+      }
+      return new Totals(taxed.minorUnits(), tax.minorUnits());
+    }
   }
 }
@@ -0,0 +1,92 @@
+package it.gabrieletondi.telldontaskkata.domain;
+
+import java.util.ArrayList;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+@ToString
+@EqualsAndHashCode
+public class OrderEvent {
+
+  public enum Kind {
+    CREATED(null),
+    ITEM_ADDED(null),
+    APPROVED(Approved.INSTANCE),
+    REJECTED(Rejected.INSTANCE),
+    SHIPPED(Shipped.INSTANCE);
+
+    private final OrderStatus status;
+
+    Kind(OrderStatus status) {
+      this.status = status;
+    }
+
+    static Kind ofTransitionTo(OrderStatus status) {
+      for (Kind kind : values()) {
+        if (kind.status != null && kind.status.code() == status.code()) {
+          return kind;
+        }
+      }
+      throw new IllegalArgumentException("no event moves an order to " + status.getClass().getSimpleName());
+    }
+  }
+
+  private final int orderId;
+  private final Kind kind;
+  private final String currency;
+  private final Product product;
+  private final int quantity;
+
+  private OrderEvent(int orderId, Kind kind, String currency, Product product, int quantity) {
+    this.orderId = orderId;
+    this.kind = kind;
+    this.currency = currency;
+    this.product = product;
+    this.quantity = quantity;
+  }
+
+  public static OrderEvent created(int orderId, String currency) {
+    return new OrderEvent(orderId, Kind.CREATED, currency, null, 0);
+  }
+
+  static OrderEvent itemAdded(int orderId, Product product, int quantity) {
+    return new OrderEvent(orderId, Kind.ITEM_ADDED, null, product, quantity);
+  }
+
+  static OrderEvent movedTo(int orderId, OrderStatus status) {
+    return new OrderEvent(orderId, Kind.ofTransitionTo(status), null, null, 0);
+  }
+
+  public int getOrderId() {
+    return orderId;
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Starts the order a {@link Kind#CREATED} event records.
+   */
+  public Order newOrder() {
+    if (kind != Kind.CREATED) {
+      throw new IllegalStateException(kind + " events do not start an order");
+    }
+    return new Order(orderId, Created.INSTANCE, new ArrayList<>(), currency, Money.ZERO, Money.ZERO, 0);
+  }
+
+  /**
+   * Applies the event to {@code order} again, through the same domain methods that first emitted it.
+   */
+  public void replayOn(Order order) {
+    switch (kind) {
+      case CREATED:
+        break;
+      case ITEM_ADDED:
+        order.add(product, quantity);
+        break;
+      default:
+        order.tryMoveTo(kind.status).orThrow();
+    }
+  }
+}
@@ -0,0 +1,9 @@
+package it.gabrieletondi.telldontaskkata.domain;
+
+public interface OrderEventListener {
+
+  OrderEventListener NONE = event -> {
+  };
+
+  void on(OrderEvent event);
+}
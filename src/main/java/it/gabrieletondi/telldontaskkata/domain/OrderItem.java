@@ -10,10 +10,14 @@ public class OrderItem {
 
   private Product product;
   private int quantity;
-  private BigDecimal taxedAmount;
-  private BigDecimal taxAmount;
+  private Money taxedAmount;
+  private Money taxAmount;
 
   public OrderItem(Product product, int quantity, BigDecimal taxedAmount, BigDecimal taxAmount) {
+    this(product, quantity, Money.of(taxedAmount), Money.of(taxAmount));
+  }
+
+  public OrderItem(Product product, int quantity, Money taxedAmount, Money taxAmount) {
     this.product = product;
     this.quantity = quantity;
     this.taxedAmount = taxedAmount;
@@ -24,11 +28,15 @@ public class OrderItem {
     return new OrderItem(product, quantity, product.taxedAmountFor(quantity), product.taxAmountFor(quantity));
   }
 
-  BigDecimal addTaxAmountTo(BigDecimal tax) {
-    return tax.add(taxAmount);
+  void writeTo(OrderWriter writer) {
+    product.writeTo(writer, quantity, taxedAmount, taxAmount);
+  }
+
+  Money addTaxAmountTo(Money tax) {
+    return tax.plus(taxAmount);
   }
 
-  BigDecimal addTaxedAmountTo(BigDecimal total) {
-    return total.add(taxedAmount);
+  Money addTaxedAmountTo(Money total) {
+    return total.plus(taxedAmount);
   }
 }
@@ -0,0 +1,52 @@
+package it.gabrieletondi.telldontaskkata.domain;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * A quantity of a product to put in a new order, see {@link Order#withLines}.
+ */
+@ToString
+@EqualsAndHashCode
+public class OrderLine {
+
+  private final Product product;
+  private final int quantity;
+
+  public OrderLine(Product product, int quantity) {
+    this.product = product;
+    this.quantity = quantity;
+  }
+
+  /**
+   * Merges the lines of the same product into one holding their total quantity, where each product first
+   * appears. Lines of a product whose taxed unit price is not a whole number of cents stay apart, since
+   * rounding their merged amount could change the order total.
+   */
+  public static List<OrderLine> merged(List<OrderLine> lines) {
+    final List<OrderLine> merged = new ArrayList<>(lines.size());
+    final Map<Product, Integer> positions = new HashMap<>();
+    for (OrderLine line : lines) {
+      if (!line.product.taxesAnyQuantityExactly()) {
+        merged.add(line);
+        continue;
+      }
+      final Integer position = positions.putIfAbsent(line.product, merged.size());
+      if (position == null) {
+        merged.add(line);
+      } else {
+        final OrderLine first = merged.get(position);
+        merged.set(position, new OrderLine(line.product, Math.addExact(first.quantity, line.quantity)));
+      }
+    }
+    return merged;
+  }
+
+  OrderItem toItem() {
+    return OrderItem.forA(product, quantity);
+  }
+}
@@ -2,9 +2,32 @@ package it.gabrieletondi.telldontaskkata.domain;
 
 public interface OrderStatus {
 
-  OrderStatus toRejected();
+  int code();
 
-  OrderStatus toApproved();
+  default TransitionOutcome rejection() {
+    return OrderTransitions.outcome(this, Rejected.INSTANCE);
+  }
 
-  OrderStatus toShipped();
+  default TransitionOutcome approval() {
+    return OrderTransitions.outcome(this, Approved.INSTANCE);
+  }
+
+  default TransitionOutcome shipment() {
+    return OrderTransitions.outcome(this, Shipped.INSTANCE);
+  }
+
+  default OrderStatus toRejected() {
+    rejection().orThrow();
+    return Rejected.INSTANCE;
+  }
+
+  default OrderStatus toApproved() {
+    approval().orThrow();
+    return Approved.INSTANCE;
+  }
+
+  default OrderStatus toShipped() {
+    shipment().orThrow();
+    return Shipped.INSTANCE;
+  }
 }
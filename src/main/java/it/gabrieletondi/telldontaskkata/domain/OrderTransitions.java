@@ -0,0 +1,71 @@
+package it.gabrieletondi.telldontaskkata.domain;
+
+import static it.gabrieletondi.telldontaskkata.domain.TransitionOutcome.APPLIED;
+import static it.gabrieletondi.telldontaskkata.domain.TransitionOutcome.APPROVED_ORDER_CANNOT_BE_REJECTED;
+import static it.gabrieletondi.telldontaskkata.domain.TransitionOutcome.ORDER_CANNOT_BE_SHIPPED_TWICE;
+import static it.gabrieletondi.telldontaskkata.domain.TransitionOutcome.ORDER_NOT_READY_FOR_SHIPMENT;
+import static it.gabrieletondi.telldontaskkata.domain.TransitionOutcome.REJECTED_ORDER_CANNOT_BE_APPROVED;
+import static it.gabrieletondi.telldontaskkata.domain.TransitionOutcome.SHIPPED_ORDERS_CANNOT_BE_APPROVED;
+import static it.gabrieletondi.telldontaskkata.domain.TransitionOutcome.SHIPPED_ORDERS_CANNOT_BE_REJECTED;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class OrderTransitions {
+
+  private static final OrderStatus[] STATUSES = {
+      Created.INSTANCE, Approved.INSTANCE, Rejected.INSTANCE, Shipped.INSTANCE};
+
+  private static final TransitionOutcome[][] OUTCOMES = new TransitionOutcome[STATUSES.length][STATUSES.length];
+
+  static {
+    from(Created.INSTANCE, APPLIED, APPLIED, ORDER_NOT_READY_FOR_SHIPMENT);
+    from(Approved.INSTANCE, APPLIED, APPROVED_ORDER_CANNOT_BE_REJECTED, APPLIED);
+    from(Rejected.INSTANCE, REJECTED_ORDER_CANNOT_BE_APPROVED, APPLIED, ORDER_NOT_READY_FOR_SHIPMENT);
+    from(Shipped.INSTANCE, SHIPPED_ORDERS_CANNOT_BE_APPROVED, SHIPPED_ORDERS_CANNOT_BE_REJECTED,
+        ORDER_CANNOT_BE_SHIPPED_TWICE);
+  }
+
+  private OrderTransitions() {
+  }
+
+  private static void from(OrderStatus status, TransitionOutcome approval, TransitionOutcome rejection,
+      TransitionOutcome shipment) {
+    OUTCOMES[status.code()][Approved.CODE] = approval;
+    OUTCOMES[status.code()][Rejected.CODE] = rejection;
+    OUTCOMES[status.code()][Shipped.CODE] = shipment;
+  }
+
+  public static TransitionOutcome outcome(OrderStatus from, OrderStatus to) {
+    final TransitionOutcome outcome = OUTCOMES[from.code()][to.code()];
+    if (outcome == null) {
+      throw new IllegalArgumentException("no transition leads to " + to.getClass().getSimpleName());
+    }
+    return outcome;
+  }
+
+  public static boolean isLegal(OrderStatus from, OrderStatus to) {
+    final TransitionOutcome outcome = OUTCOMES[from.code()][to.code()];
+    return outcome != null && outcome.isApplied();
+  }
+
+  public static List<OrderStatus> legalTargetsFrom(OrderStatus from) {
+    final List<OrderStatus> targets = new ArrayList<>();
+    for (OrderStatus to : STATUSES) {
+      if (isLegal(from, to)) {
+        targets.add(to);
+      }
+    }
+    return unmodifiableList(targets);
+  }
+
+  public static List<OrderStatus> statuses() {
+    return unmodifiableList(asList(STATUSES));
+  }
+
+  public static OrderStatus statusWithCode(int code) {
+    return STATUSES[code];
+  }
+}
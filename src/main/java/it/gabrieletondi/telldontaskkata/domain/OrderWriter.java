@@ -0,0 +1,15 @@
+package it.gabrieletondi.telldontaskkata.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Receives the state of an {@link Order} from {@link Order#writeTo}: the order first, then each of its
+ * items in order.
+ */
+public interface OrderWriter {
+
+  void order(int id, OrderStatus status, String currency, Money total, Money tax, long version, int items);
+
+  void item(String productName, BigDecimal price, BigDecimal taxPercentage, int quantity, Money taxedAmount,
+      Money taxAmount);
+}
@@ -13,17 +13,41 @@ public class Price {
 
   private final BigDecimal amount;
   private final BigDecimal taxPercentage;
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final BigDecimal includingUnitaryTax;
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final Money unitaryTax;
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final Money taxedUnit;
 
   public Price(BigDecimal amount, BigDecimal taxPercentage) {
     this.amount = amount;
     this.taxPercentage = taxPercentage;
+    final BigDecimal unitaryTaxAmount = amount.divide(valueOf(100)).multiply(taxPercentage).setScale(2, HALF_UP);
+    this.includingUnitaryTax = amount.add(unitaryTaxAmount);
+    this.unitaryTax = Money.of(unitaryTaxAmount);
+    this.taxedUnit = Money.isWholeMinorUnits(includingUnitaryTax) ? Money.of(includingUnitaryTax) : null;
   }
 
-  BigDecimal unitaryTaxAmount() {
-    return amount.divide(valueOf(100)).multiply(taxPercentage).setScale(2, HALF_UP);
+  void writeTo(OrderWriter writer, String productName, int quantity, Money taxedAmount, Money taxAmount) {
+    writer.item(productName, amount, taxPercentage, quantity, taxedAmount, taxAmount);
   }
 
-  BigDecimal includingUnitaryTax() {
-    return amount.add(unitaryTaxAmount());
+  Money taxedAmountFor(int quantity) {
+    if (taxedUnit == null) {
+      return Money.of(includingUnitaryTax.multiply(valueOf(quantity)));
+    }
+    return taxedUnit.times(quantity);
+  }
+
+  boolean taxesAnyQuantityExactly() {
+    return taxedUnit != null;
+  }
+
+  Money taxAmountFor(int quantity) {
+    return unitaryTax.times(quantity);
   }
 }
@@ -1,9 +1,5 @@
 package it.gabrieletondi.telldontaskkata.domain;
 
-import static java.math.BigDecimal.valueOf;
-import static java.math.RoundingMode.HALF_UP;
-
-import java.math.BigDecimal;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -11,27 +7,35 @@ import lombok.ToString;
 @EqualsAndHashCode
 public class Product {
 
-  private String name;
-  private Price price;
+  private final String name;
+  private final Price price;
 
   public Product(String name, Price price) {
     this.name = name;
     this.price = price;
   }
 
-  private static BigDecimal multiply(BigDecimal value, int quantity) {
-    return value.multiply(valueOf(quantity)).setScale(2, HALF_UP);
-  }
-
   boolean with(String thatName) {
     return name.equals(thatName);
   }
 
-  BigDecimal taxedAmountFor(int quantity) {
-    return multiply(price.includingUnitaryTax(), quantity);
+  String name() {
+    return name;
+  }
+
+  void writeTo(OrderWriter writer, int quantity, Money taxedAmount, Money taxAmount) {
+    price.writeTo(writer, name, quantity, taxedAmount, taxAmount);
+  }
+
+  Money taxedAmountFor(int quantity) {
+    return price.taxedAmountFor(quantity);
+  }
+
+  boolean taxesAnyQuantityExactly() {
+    return price.taxesAnyQuantityExactly();
   }
 
-  BigDecimal taxAmountFor(int quantity) {
-    return multiply(price.unitaryTaxAmount(), quantity);
+  Money taxAmountFor(int quantity) {
+    return price.taxAmountFor(quantity);
   }
 }
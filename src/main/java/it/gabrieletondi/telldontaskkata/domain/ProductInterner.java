@@ -0,0 +1,55 @@
+package it.gabrieletondi.telldontaskkata.domain;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Hands out one canonical instance per product name and price, so orders holding the same product share
+ * its {@link Product}, {@link Price} and their amounts. Products are held weakly: once no order or catalog
+ * refers to a canonical instance, for example after a price change, it can be collected.
+ */
+public final class ProductInterner {
+
+  private static final int STRIPES = 16;
+
+  private final Stripe[] stripes = new Stripe[STRIPES];
+
+  public ProductInterner() {
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new Stripe();
+    }
+  }
+
+  public Product intern(Product product) {
+    final int hash = product.hashCode() * 0x9E3779B9;
+    final Stripe stripe = stripes[(hash ^ hash >>> 16) & STRIPES - 1];
+    synchronized (stripe) {
+      final WeakReference<Product> reference = stripe.canonical.get(product);
+      final Product canonical = reference == null ? null : reference.get();
+      if (canonical != null) {
+        return canonical;
+      }
+      stripe.canonical.put(product, new WeakReference<>(product));
+      return product;
+    }
+  }
+
+  /**
+   * Counts the canonical products that have not been collected yet.
+   */
+  public int size() {
+    int size = 0;
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        size += stripe.canonical.size();
+      }
+    }
+    return size;
+  }
+
+  private static final class Stripe {
+
+    private final Map<Product, WeakReference<Product>> canonical = new WeakHashMap<>();
+  }
+}
@@ -1,15 +1,20 @@
 package it.gabrieletondi.telldontaskkata.domain;
 
+import static java.util.Collections.unmodifiableMap;
+
 import it.gabrieletondi.telldontaskkata.useCase.creation.UnknownProductException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Products {
 
-  private final List<Product> values;
+  private final Map<String, Product> byName;
 
   public Products(List<Product> values) {
     assertThereAreNoUnknownProducts(values);
-    this.values = values;
+    this.byName = indexByName(values);
   }
 
   private static void assertThereAreNoUnknownProducts(List<Product> values) {
@@ -30,7 +35,42 @@ public class Products {
     return product == null;
   }
 
+  private static Map<String, Product> indexByName(List<Product> values) {
+    final Map<String, Product> index = new HashMap<>(values.size() * 4 / 3 + 1);
+    for (Product product : values) {
+      index.putIfAbsent(product.name(), product);
+    }
+    return unmodifiableMap(index);
+  }
+
   public Product oneWithThe(String name) {
-    return values.stream().filter(p -> p.with(name)).findFirst().orElse(null);
+    return byName.get(name);
+  }
+
+  /**
+   * Returns these products with every one replaced by its canonical instance in {@code interner}.
+   */
+  public Products internedWith(ProductInterner interner) {
+    final List<Product> interned = new ArrayList<>(byName.size());
+    for (Product product : byName.values()) {
+      interned.add(interner.intern(product));
+    }
+    return new Products(interned);
+  }
+
+  public Products allWith(List<String> names) {
+    final List<Product> found = new ArrayList<>(names.size());
+    final List<String> unknownNames = new ArrayList<>();
+    for (String name : names) {
+      final Product product = oneWithThe(name);
+      found.add(product);
+      if (unknown(product)) {
+        unknownNames.add(name);
+      }
+    }
+    if (!unknownNames.isEmpty()) {
+      throw new UnknownProductException(unknownNames);
+    }
+    return new Products(found);
   }
 }
@@ -1,24 +1,16 @@
 package it.gabrieletondi.telldontaskkata.domain;
 
-import it.gabrieletondi.telldontaskkata.useCase.approval.invariants.RejectedOrderCannotBeApproved;
-import it.gabrieletondi.telldontaskkata.useCase.shipment.invariants.OrderNotReadyForShippment;
 import lombok.EqualsAndHashCode;
 
 @EqualsAndHashCode
 public class Rejected implements OrderStatus {
 
-  @Override
-  public OrderStatus toRejected() {
-    return this;
-  }
+  public static final Rejected INSTANCE = new Rejected();
 
-  @Override
-  public OrderStatus toApproved() {
-    throw new RejectedOrderCannotBeApproved();
-  }
+  static final int CODE = 2;
 
   @Override
-  public OrderStatus toShipped() {
-    throw new OrderNotReadyForShippment();
+  public int code() {
+    return CODE;
   }
 }
@@ -1,25 +1,16 @@
 package it.gabrieletondi.telldontaskkata.domain;
 
-import it.gabrieletondi.telldontaskkata.useCase.approval.invariants.ShippedOrdersCannotBeApproved;
-import it.gabrieletondi.telldontaskkata.useCase.rejection.invariants.ShippedOrdersCannotBeRejected;
-import it.gabrieletondi.telldontaskkata.useCase.shipment.invariants.OrderCannotBeShippedTwice;
 import lombok.EqualsAndHashCode;
 
 @EqualsAndHashCode
 public class Shipped implements OrderStatus {
 
-  @Override
-  public OrderStatus toRejected() {
-    throw new ShippedOrdersCannotBeRejected();
-  }
+  public static final Shipped INSTANCE = new Shipped();
 
-  @Override
-  public OrderStatus toApproved() {
-    throw new ShippedOrdersCannotBeApproved();
-  }
+  static final int CODE = 3;
 
   @Override
-  public OrderStatus toShipped() {
-    throw new OrderCannotBeShippedTwice();
+  public int code() {
+    return CODE;
   }
 }
@@ -0,0 +1,39 @@
+package it.gabrieletondi.telldontaskkata.domain;
+
+import it.gabrieletondi.telldontaskkata.useCase.approval.invariants.RejectedOrderCannotBeApproved;
+import it.gabrieletondi.telldontaskkata.useCase.approval.invariants.ShippedOrdersCannotBeApproved;
+import it.gabrieletondi.telldontaskkata.useCase.rejection.invariants.ApprovedOrderCannotBeRejected;
+import it.gabrieletondi.telldontaskkata.useCase.rejection.invariants.ShippedOrdersCannotBeRejected;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.invariants.OrderCannotBeShippedTwice;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.invariants.OrderNotReadyForShippment;
+
+public enum TransitionOutcome {
+
+  APPLIED(null),
+  REJECTED_ORDER_CANNOT_BE_APPROVED(new RejectedOrderCannotBeApproved()),
+  SHIPPED_ORDERS_CANNOT_BE_APPROVED(new ShippedOrdersCannotBeApproved()),
+  APPROVED_ORDER_CANNOT_BE_REJECTED(new ApprovedOrderCannotBeRejected()),
+  SHIPPED_ORDERS_CANNOT_BE_REJECTED(new ShippedOrdersCannotBeRejected()),
+  ORDER_NOT_READY_FOR_SHIPMENT(new OrderNotReadyForShippment()),
+  ORDER_CANNOT_BE_SHIPPED_TWICE(new OrderCannotBeShippedTwice());
+
+  private final RuntimeException failure;
+
+  TransitionOutcome(RuntimeException failure) {
+    this.failure = failure;
+  }
+
+  public boolean isApplied() {
+    return failure == null;
+  }
+
+  public RuntimeException failure() {
+    return failure;
+  }
+
+  public void orThrow() {
+    if (failure != null) {
+      throw failure;
+    }
+  }
+}
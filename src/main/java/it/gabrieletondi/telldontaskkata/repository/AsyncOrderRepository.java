@@ -0,0 +1,25 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+public interface AsyncOrderRepository {
+
+  CompletableFuture<Void> save(Order order);
+
+  CompletableFuture<Order> orderWith(int orderId);
+
+  /**
+   * Completes with {@code false} instead of saving when the stored version no longer matches
+   * {@code order}'s version; see {@link OrderRepository#compareAndSave(Order)}.
+   */
+  CompletableFuture<Boolean> compareAndSave(Order order);
+
+  /**
+   * Runs the blocking calls of {@code orderRepository} on {@code executor}.
+   */
+  static AsyncOrderRepository over(OrderRepository orderRepository, Executor executor) {
+    return new BlockingOrderRepositoryAdapter(orderRepository, executor);
+  }
+}
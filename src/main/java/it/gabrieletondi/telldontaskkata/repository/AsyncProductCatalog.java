@@ -0,0 +1,18 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import it.gabrieletondi.telldontaskkata.domain.Products;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+public interface AsyncProductCatalog {
+
+  CompletableFuture<Products> productsWith(List<String> productNames);
+
+  /**
+   * Runs the blocking lookups of {@code productCatalog} on {@code executor}.
+   */
+  static AsyncProductCatalog over(ProductCatalog productCatalog, Executor executor) {
+    return productNames -> CompletableFuture.supplyAsync(() -> productCatalog.productsWith(productNames), executor);
+  }
+}
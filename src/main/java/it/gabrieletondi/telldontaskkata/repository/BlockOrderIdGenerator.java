@@ -0,0 +1,65 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import static it.gabrieletondi.telldontaskkata.repository.Hashing.mix;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out ids from blocks of {@code blockSize} taken off a shared counter. The open blocks sit in a fixed
+ * number of stripes picked by thread, not one per thread, so threads that live for a single task, like
+ * virtual threads, share blocks instead of each taking a whole one for a few ids.
+ */
+public class BlockOrderIdGenerator implements OrderIdGenerator {
+
+  private static final int DEFAULT_BLOCK_SIZE = 1024;
+  static final int STRIPES = 16;
+
+  private final AtomicLong nextBlockStart;
+  private final int blockSize;
+  private final Block[] blocks = new Block[STRIPES];
+
+  public BlockOrderIdGenerator() {
+    this(1, DEFAULT_BLOCK_SIZE);
+  }
+
+  public BlockOrderIdGenerator(int firstId, int blockSize) {
+    if (firstId < 0) {
+      throw new IllegalArgumentException("first id must not be negative: " + firstId);
+    }
+    if (blockSize <= 0) {
+      throw new IllegalArgumentException("block size must be positive: " + blockSize);
+    }
+    this.nextBlockStart = new AtomicLong(firstId);
+    this.blockSize = blockSize;
+    for (int i = 0; i < STRIPES; i++) {
+      blocks[i] = new Block();
+    }
+  }
+
+  @Override
+  public int nextId() {
+    final Block block = blocks[mix((int) Thread.currentThread().getId()) & STRIPES - 1];
+    synchronized (block) {
+      if (block.remaining == 0) {
+        allocate(block);
+      }
+      block.remaining--;
+      return block.next++;
+    }
+  }
+
+  private void allocate(Block block) {
+    final long start = nextBlockStart.getAndAdd(blockSize);
+    if (start > Integer.MAX_VALUE) {
+      throw new IllegalStateException("order ids exhausted");
+    }
+    block.next = (int) start;
+    block.remaining = (int) Math.min(blockSize, Integer.MAX_VALUE - start + 1);
+  }
+
+  private static final class Block {
+
+    private int next;
+    private int remaining;
+  }
+}
@@ -0,0 +1,34 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import static java.util.concurrent.CompletableFuture.runAsync;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+class BlockingOrderRepositoryAdapter implements AsyncOrderRepository {
+
+  private final OrderRepository orderRepository;
+  private final Executor executor;
+
+  BlockingOrderRepositoryAdapter(OrderRepository orderRepository, Executor executor) {
+    this.orderRepository = orderRepository;
+    this.executor = executor;
+  }
+
+  @Override
+  public CompletableFuture<Void> save(Order order) {
+    return runAsync(() -> orderRepository.save(order), executor);
+  }
+
+  @Override
+  public CompletableFuture<Order> orderWith(int orderId) {
+    return supplyAsync(() -> orderRepository.orderWith(orderId), executor);
+  }
+
+  @Override
+  public CompletableFuture<Boolean> compareAndSave(Order order) {
+    return supplyAsync(() -> orderRepository.compareAndSave(order), executor);
+  }
+}
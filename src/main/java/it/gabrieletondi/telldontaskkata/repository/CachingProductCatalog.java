@@ -0,0 +1,202 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import it.gabrieletondi.telldontaskkata.domain.Products;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the products of the delegate, keeping at most {@code maximumSize} of them. The cache is split in
+ * up to 16 stripes by product name, each an LRU of at least 64 entries with its own lock, so lookups of
+ * different products rarely wait on each other; a small cache is a single exact LRU.
+ */
+public class CachingProductCatalog implements ProductCatalog {
+
+  private static final int MAXIMUM_STRIPES = 16;
+  private static final int MINIMUM_STRIPE_SIZE = 64;
+
+  private final ProductCatalog delegate;
+  private final long timeToLiveNanos;
+  private final LongSupplier nanoClock;
+  private final Stripe[] stripes;
+  private final int stripeMask;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public CachingProductCatalog(ProductCatalog delegate, int maximumSize) {
+    this(delegate, maximumSize, Duration.ZERO);
+  }
+
+  public CachingProductCatalog(ProductCatalog delegate, int maximumSize, Duration timeToLive) {
+    this(delegate, maximumSize, timeToLive, System::nanoTime);
+  }
+
+  CachingProductCatalog(ProductCatalog delegate, int maximumSize, Duration timeToLive, LongSupplier nanoClock) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("maximum size must be positive: " + maximumSize);
+    }
+    this.delegate = delegate;
+    this.timeToLiveNanos = timeToLive.toNanos();
+    this.nanoClock = nanoClock;
+    final int stripeCount =
+        Math.min(MAXIMUM_STRIPES, Integer.highestOneBit(Math.max(1, maximumSize / MINIMUM_STRIPE_SIZE)));
+    this.stripes = new Stripe[stripeCount];
+    for (int i = 0; i < stripeCount; i++) {
+      stripes[i] = new Stripe(maximumSize / stripeCount + (i < maximumSize % stripeCount ? 1 : 0));
+    }
+    this.stripeMask = stripeCount - 1;
+  }
+
+  @Override
+  public Products productsWith(List<String> productNames) {
+    final List<Product> products = new ArrayList<>(productNames.size());
+    final Set<String> missing = new LinkedHashSet<>();
+    long[] invalidationsBeforeFetch = null;
+    final long now = nanoClock.getAsLong();
+    for (int i = 0; i < productNames.size(); i++) {
+      final String name = productNames.get(i);
+      final Stripe stripe = stripeFor(name);
+      final Product cached = stripe.cached(name, now);
+      products.add(cached);
+      if (cached == null) {
+        if (invalidationsBeforeFetch == null) {
+          invalidationsBeforeFetch = new long[productNames.size()];
+        }
+        invalidationsBeforeFetch[i] = stripe.invalidations();
+        missing.add(name);
+      }
+    }
+    if (!missing.isEmpty()) {
+      fillIn(products, productNames, delegate.productsWith(new ArrayList<>(missing)), invalidationsBeforeFetch);
+    }
+    return new Products(products);
+  }
+
+  /**
+   * Fills the missing products in from {@code fetched}, and caches each one unless its stripe was
+   * invalidated since the lookup missed.
+   */
+  private void fillIn(List<Product> products, List<String> productNames, Products fetched,
+      long[] invalidationsBeforeFetch) {
+    final long expiresAt = nanoClock.getAsLong() + timeToLiveNanos;
+    for (int i = 0; i < products.size(); i++) {
+      if (products.get(i) == null) {
+        final String name = productNames.get(i);
+        final Product product = fetched.oneWithThe(name);
+        products.set(i, product);
+        if (product != null) {
+          stripeFor(name).putUnlessInvalidated(name, new Entry(product, expiresAt), invalidationsBeforeFetch[i]);
+        }
+      }
+    }
+  }
+
+  public void invalidate(String productName) {
+    stripeFor(productName).invalidate(productName);
+  }
+
+  public void invalidateAll() {
+    for (Stripe stripe : stripes) {
+      stripe.invalidateAll();
+    }
+  }
+
+  public int size() {
+    int size = 0;
+    for (Stripe stripe : stripes) {
+      size += stripe.size();
+    }
+    return size;
+  }
+
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  public long missCount() {
+    return misses.sum();
+  }
+
+  public long evictionCount() {
+    return evictions.sum();
+  }
+
+  private Stripe stripeFor(String productName) {
+    return stripes[Hashing.mix(productName.hashCode()) & stripeMask];
+  }
+
+  private final class Stripe {
+
+    private final Map<String, Entry> entries;
+    private long invalidations;
+
+    Stripe(int maximumSize) {
+      this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+          if (size() > maximumSize) {
+            evictions.increment();
+            return true;
+          }
+          return false;
+        }
+      };
+    }
+
+    synchronized Product cached(String name, long now) {
+      final Entry entry = entries.get(name);
+      if (entry != null && (timeToLiveNanos == 0 || now - entry.expiresAt < 0)) {
+        hits.increment();
+        return entry.product;
+      }
+      if (entry != null) {
+        entries.remove(name);
+      }
+      misses.increment();
+      return null;
+    }
+
+    synchronized long invalidations() {
+      return invalidations;
+    }
+
+    synchronized void putUnlessInvalidated(String name, Entry entry, long invalidationsBeforeFetch) {
+      if (invalidations == invalidationsBeforeFetch) {
+        entries.put(name, entry);
+      }
+    }
+
+    synchronized void invalidate(String name) {
+      entries.remove(name);
+      invalidations++;
+    }
+
+    synchronized void invalidateAll() {
+      entries.clear();
+      invalidations++;
+    }
+
+    synchronized int size() {
+      return entries.size();
+    }
+  }
+
+  private static final class Entry {
+
+    private final Product product;
+    private final long expiresAt;
+
+    Entry(Product product, long expiresAt) {
+      this.product = product;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -0,0 +1,196 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import it.gabrieletondi.telldontaskkata.domain.Products;
+import it.gabrieletondi.telldontaskkata.useCase.creation.UnknownProductException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public class CoalescingProductCatalog implements ProductCatalog {
+
+  private static final int DEFAULT_MAXIMUM_BATCH_SIZE = 1_000;
+
+  private final ProductCatalog delegate;
+  private final long batchWindowNanos;
+  private final int maximumBatchSize;
+  private final ConcurrentMap<String, CompletableFuture<Product>> inFlight = new ConcurrentHashMap<>();
+  private final Object batchLock = new Object();
+  private final LongAdder delegateCalls = new LongAdder();
+  private final LongAdder coalescedLookups = new LongAdder();
+  private Batch openBatch;
+
+  public CoalescingProductCatalog(ProductCatalog delegate) {
+    this(delegate, Duration.ZERO, DEFAULT_MAXIMUM_BATCH_SIZE);
+  }
+
+  public CoalescingProductCatalog(ProductCatalog delegate, Duration batchWindow, int maximumBatchSize) {
+    if (maximumBatchSize <= 0) {
+      throw new IllegalArgumentException("maximum batch size must be positive: " + maximumBatchSize);
+    }
+    this.delegate = delegate;
+    this.batchWindowNanos = batchWindow.toNanos();
+    this.maximumBatchSize = maximumBatchSize;
+  }
+
+  @Override
+  public Products productsWith(List<String> productNames) {
+    final List<CompletableFuture<Product>> lookups = new ArrayList<>(productNames.size());
+    final List<Batch> ledBatches = new ArrayList<>(1);
+    synchronized (batchLock) {
+      for (String name : productNames) {
+        lookups.add(lookupOf(name, ledBatches));
+      }
+    }
+    if (!ledBatches.isEmpty()) {
+      fetchLed(ledBatches);
+    }
+    final List<Product> products = new ArrayList<>(lookups.size());
+    for (CompletableFuture<Product> lookup : lookups) {
+      products.add(resultOf(lookup));
+    }
+    return new Products(products);
+  }
+
+  private CompletableFuture<Product> lookupOf(String name, List<Batch> ledBatches) {
+    final CompletableFuture<Product> inFlightLookup = inFlight.get(name);
+    if (inFlightLookup != null) {
+      coalescedLookups.increment();
+      return inFlightLookup;
+    }
+    if (openBatch == null || openBatch.names.size() == maximumBatchSize) {
+      openBatch = new Batch();
+      ledBatches.add(openBatch);
+    }
+    final CompletableFuture<Product> lookup = new CompletableFuture<>();
+    inFlight.put(name, lookup);
+    openBatch.names.add(name);
+    openBatch.lookups.add(lookup);
+    return lookup;
+  }
+
+  /**
+   * Waits out the batch window once and fetches every batch the caller leads, even when fetching one of
+   * them throws an {@link Error}; the first such error is rethrown once all of them are done.
+   */
+  private void fetchLed(List<Batch> batches) {
+    if (batchWindowNanos > 0) {
+      LockSupport.parkNanos(batchWindowNanos);
+    }
+    synchronized (batchLock) {
+      if (batches.contains(openBatch)) {
+        openBatch = null;
+      }
+    }
+    Error error = null;
+    for (Batch batch : batches) {
+      final Throwable failure = fetch(batch);
+      if (failure instanceof Error) {
+        if (error == null) {
+          error = (Error) failure;
+        } else {
+          error.addSuppressed(failure);
+        }
+      }
+    }
+    if (error != null) {
+      throw error;
+    }
+  }
+
+  /**
+   * Completes the lookups of {@code batch}, and returns the failure they were completed with, if any.
+   */
+  private Throwable fetch(Batch batch) {
+    try {
+      resolve(batch.names, batch.lookups);
+      return null;
+    } catch (Throwable failure) {
+      batch.lookups.forEach(lookup -> lookup.completeExceptionally(failure));
+      return failure;
+    } finally {
+      for (int i = 0; i < batch.names.size(); i++) {
+        inFlight.remove(batch.names.get(i), batch.lookups.get(i));
+      }
+    }
+  }
+
+  private Products fetchAll(List<String> names) {
+    delegateCalls.increment();
+    return delegate.productsWith(names);
+  }
+
+  /**
+   * Completes the lookups of {@code names}, unknown products with null. When the delegate names the
+   * unknown products, the rest are fetched again in one call; otherwise the names are split in halves
+   * until each unknown one is on its own.
+   */
+  private void resolve(List<String> names, List<CompletableFuture<Product>> lookups) {
+    final Products products;
+    try {
+      products = fetchAll(names);
+    } catch (UnknownProductException unknown) {
+      final List<String> known = new ArrayList<>(names.size());
+      final List<CompletableFuture<Product>> knownLookups = new ArrayList<>(names.size());
+      final List<CompletableFuture<Product>> unknownLookups = new ArrayList<>();
+      for (int i = 0; i < names.size(); i++) {
+        if (unknown.getProductNames().contains(names.get(i))) {
+          unknownLookups.add(lookups.get(i));
+        } else {
+          known.add(names.get(i));
+          knownLookups.add(lookups.get(i));
+        }
+      }
+      if (!unknownLookups.isEmpty()) {
+        unknownLookups.forEach(lookup -> lookup.complete(null));
+        if (!known.isEmpty()) {
+          resolve(known, knownLookups);
+        }
+      } else if (names.size() == 1) {
+        lookups.get(0).complete(null);
+      } else {
+        final int half = names.size() / 2;
+        resolve(names.subList(0, half), lookups.subList(0, half));
+        resolve(names.subList(half, names.size()), lookups.subList(half, lookups.size()));
+      }
+      return;
+    }
+    for (int i = 0; i < names.size(); i++) {
+      lookups.get(i).complete(products.oneWithThe(names.get(i)));
+    }
+  }
+
+  private static Product resultOf(CompletableFuture<Product> lookup) {
+    try {
+      return lookup.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  public long delegateCallCount() {
+    return delegateCalls.sum();
+  }
+
+  public long coalescedLookupCount() {
+    return coalescedLookups.sum();
+  }
+
+  private static final class Batch {
+
+    private final List<String> names = new ArrayList<>();
+    private final List<CompletableFuture<Product>> lookups = new ArrayList<>();
+  }
+}
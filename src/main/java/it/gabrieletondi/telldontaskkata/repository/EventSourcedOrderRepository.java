@@ -0,0 +1,153 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import it.gabrieletondi.telldontaskkata.domain.Money;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.OrderEvent;
+import it.gabrieletondi.telldontaskkata.domain.OrderEventListener;
+import it.gabrieletondi.telldontaskkata.domain.OrderStatus;
+import it.gabrieletondi.telldontaskkata.domain.OrderWriter;
+import it.gabrieletondi.telldontaskkata.domain.Price;
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import it.gabrieletondi.telldontaskkata.useCase.UnknownOrderException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Keeps orders as the events that built them. Saving an order replays the stored events, then adds the
+ * saved order's new items and makes the transitions the saved order went through, as
+ * {@link Order#drainTransitions} reports them, on that replayed order; the events the domain emits along the
+ * way are appended as one commit. Every {@code snapshotEvery} events a snapshot
+ * is kept, so rebuilding an order replays fewer than {@code snapshotEvery} events whatever its history.
+ */
+public class EventSourcedOrderRepository implements OrderRepository {
+
+  private final OrderEventStore eventStore;
+  private final int snapshotEvery;
+
+  public EventSourcedOrderRepository(OrderEventStore eventStore, int snapshotEvery) {
+    if (snapshotEvery <= 0) {
+      throw new IllegalArgumentException("snapshot frequency must be positive: " + snapshotEvery);
+    }
+    this.eventStore = eventStore;
+    this.snapshotEvery = snapshotEvery;
+  }
+
+  @Override
+  public void save(Order order) {
+    final List<OrderStatus> transitions = order.drainTransitions();
+    OrderHistory history = eventStore.historyOf(order.getId());
+    while (!commit(order, transitions, history, history == null ? 0 : history.version())) {
+      history = eventStore.historyOf(order.getId());
+    }
+  }
+
+  @Override
+  public boolean compareAndSave(Order order) {
+    final OrderHistory history = eventStore.historyOf(order.getId());
+    final long storedVersion = history == null ? 0 : history.version();
+    return storedVersion == order.getVersion() && commit(order, order.drainTransitions(), history, storedVersion);
+  }
+
+  @Override
+  public Order orderWith(int orderId) {
+    final OrderHistory history = eventStore.historyOf(orderId);
+    if (history == null) {
+      throw new UnknownOrderException();
+    }
+    return history.replay();
+  }
+
+  /**
+   * @throws IllegalArgumentException when {@code order} cannot be reached from the stored one by adding
+   *     items and making {@code transitions}
+   */
+  private boolean commit(Order order, List<OrderStatus> transitions, OrderHistory history, long expectedVersion) {
+    final OrderState target = OrderState.of(order);
+    final List<OrderEvent> events = new ArrayList<>();
+    final Order current;
+    if (history == null) {
+      final OrderEvent created = OrderEvent.created(order.getId(), target.currency);
+      events.add(created);
+      current = created.newOrder();
+    } else {
+      current = history.replay();
+    }
+    current.publishTo(events::add);
+    catchUp(current, target, transitions);
+    current.publishTo(OrderEventListener.NONE);
+    if (!current.equals(order)) {
+      throw new IllegalArgumentException("order " + order.getId() + " cannot be rebuilt from its events");
+    }
+    if (!eventStore.append(order.getId(), expectedVersion, events)) {
+      return false;
+    }
+    final int eventsBefore = history == null ? 0 : history.eventCount();
+    final int eventsAfter = eventsBefore + events.size();
+    if (eventsAfter / snapshotEvery > eventsBefore / snapshotEvery) {
+      eventStore.saveSnapshot(order.getId(), current.withVersion(expectedVersion + 1), eventsAfter);
+    }
+    return true;
+  }
+
+  private static void catchUp(Order current, OrderState target, List<OrderStatus> transitions) {
+    final OrderState stored = OrderState.of(current);
+    if (stored.items.size() > target.items.size()
+        || !stored.items.equals(target.items.subList(0, stored.items.size()))) {
+      throw new IllegalArgumentException("items of a saved order cannot change");
+    }
+    for (Item item : target.items.subList(stored.items.size(), target.items.size())) {
+      current.add(new Product(item.productName, new Price(item.price, item.taxPercentage)), item.quantity);
+    }
+    for (OrderStatus status : transitions) {
+      current.tryMoveTo(status).orThrow();
+    }
+    if (!current.has(target.status)) {
+      throw new IllegalArgumentException("order " + current.getId() + " reached "
+          + target.status.getClass().getSimpleName() + " without a recorded transition");
+    }
+  }
+
+  private static final class OrderState implements OrderWriter {
+
+    private OrderStatus status;
+    private String currency;
+    private final List<Item> items = new ArrayList<>();
+
+    static OrderState of(Order order) {
+      final OrderState state = new OrderState();
+      order.writeTo(state);
+      return state;
+    }
+
+    @Override
+    public void order(int id, OrderStatus status, String currency, Money total, Money tax, long version,
+        int items) {
+      this.status = status;
+      this.currency = currency;
+    }
+
+    @Override
+    public void item(String productName, BigDecimal price, BigDecimal taxPercentage, int quantity,
+        Money taxedAmount, Money taxAmount) {
+      items.add(new Item(productName, price, taxPercentage, quantity));
+    }
+  }
+
+  @EqualsAndHashCode
+  private static final class Item {
+
+    private final String productName;
+    private final BigDecimal price;
+    private final BigDecimal taxPercentage;
+    private final int quantity;
+
+    Item(String productName, BigDecimal price, BigDecimal taxPercentage, int quantity) {
+      this.productName = productName;
+      this.price = price;
+      this.taxPercentage = taxPercentage;
+      this.quantity = quantity;
+    }
+  }
+}
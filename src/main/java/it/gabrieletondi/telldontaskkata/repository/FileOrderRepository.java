@@ -0,0 +1,521 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import it.gabrieletondi.telldontaskkata.codec.OrderCodec;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.useCase.UnknownOrderException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Stores orders as records appended to memory-mapped segment files in one directory. Each record is laid
+ * out as {@code [payload length][payload CRC32][order id][version][payload]}, the payload being the
+ * {@link OrderCodec} form of the order. The length is written last,
+ * and recovery stops at the first record whose length or checksum does not hold, so a torn append is
+ * dropped on restart. An in-memory index points every order id at its latest record.
+ *
+ * <p>When the active segment is full a new one is started and sealed segments whose live records take
+ * less than half of their bytes are compacted on {@code compactionExecutor}: their live records are copied
+ * to the active segment, which is forced to disk before the file is deleted. A compaction that fails on
+ * the executor is reported by the next {@link #flush()} or {@link #close()}.
+ *
+ * <p>Appends reach the page cache as soon as {@code save} returns; {@link #flush()} forces them to disk.
+ * Segments are unmapped when they are deleted or the repository is closed, and a closed repository refuses
+ * every call.
+ */
+public class FileOrderRepository implements OrderRepository, Closeable {
+
+  private static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+  private static final int HEADER_SIZE = 20;
+  private static final int CRC_OFFSET = 4;
+  private static final int ID_OFFSET = 8;
+  private static final int VERSION_OFFSET = 12;
+  private static final String SEGMENT_GLOB = "orders-*.log";
+  private static final int IDLE_READ_CODECS = 16;
+
+  private final Path directory;
+  private final int segmentSize;
+  private final Executor compactionExecutor;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+  private final IntLongMap index = new IntLongMap(1024);
+  private final AtomicBoolean rolledSinceCompaction = new AtomicBoolean();
+  private final OrderCodec writeCodec = new OrderCodec();
+  private final Queue<OrderCodec> idleReadCodecs = new ArrayBlockingQueue<>(IDLE_READ_CODECS);
+  private ByteBuffer encoded = ByteBuffer.allocate(256);
+  private Segment active;
+  private volatile RuntimeException compactionFailure;
+  private boolean closed;
+
+  public FileOrderRepository(Path directory) {
+    this(directory, DEFAULT_SEGMENT_SIZE, ForkJoinPool.commonPool());
+  }
+
+  public FileOrderRepository(Path directory, int segmentSize, Executor compactionExecutor) {
+    if (segmentSize < HEADER_SIZE) {
+      throw new IllegalArgumentException("segments must hold at least a record header: " + segmentSize);
+    }
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.compactionExecutor = compactionExecutor;
+    try {
+      Files.createDirectories(directory);
+      for (Segment segment : existingSegments()) {
+        segments.put(segment.number, segment);
+        recover(segment);
+      }
+      active = segments.isEmpty() ? startSegment(1, segmentSize) : segments.lastEntry().getValue();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void save(Order order) {
+    saveAll(Collections.singletonList(order));
+  }
+
+  @Override
+  public void saveAll(Collection<Order> orders) {
+    lock.writeLock().lock();
+    try {
+      checkOpen();
+      for (Order order : orders) {
+        final long location = index.get(order.getId());
+        final long version = location == IntLongMap.ABSENT ? order.getVersion() : versionAt(location);
+        write(order, version + 1);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+    compactIfRolled();
+  }
+
+  @Override
+  public void saveAllAtVersions(Collection<Order> orders) {
+    lock.writeLock().lock();
+    try {
+      checkOpen();
+      for (Order order : orders) {
+        final long location = index.get(order.getId());
+        final long version = location == IntLongMap.ABSENT ? 0 : versionAt(location);
+        write(order, Math.max(order.getVersion(), version + 1));
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+    compactIfRolled();
+  }
+
+  @Override
+  public boolean compareAndSave(Order order) {
+    lock.writeLock().lock();
+    try {
+      checkOpen();
+      final long location = index.get(order.getId());
+      final long storedVersion = location == IntLongMap.ABSENT ? 0 : versionAt(location);
+      if (storedVersion != order.getVersion()) {
+        return false;
+      }
+      write(order, storedVersion + 1);
+    } finally {
+      lock.writeLock().unlock();
+    }
+    compactIfRolled();
+    return true;
+  }
+
+  @Override
+  public Order orderWith(int orderId) {
+    lock.readLock().lock();
+    try {
+      checkOpen();
+      final long location = index.get(orderId);
+      if (location == IntLongMap.ABSENT) {
+        throw new UnknownOrderException();
+      }
+      return orderAt(location);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public List<Order> ordersWith(int[] orderIds) {
+    final List<Order> orders = new ArrayList<>(orderIds.length);
+    lock.readLock().lock();
+    try {
+      checkOpen();
+      for (int orderId : orderIds) {
+        final long location = index.get(orderId);
+        orders.add(location == IntLongMap.ABSENT ? null : orderAt(location));
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return orders;
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      checkOpen();
+      return index.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  int segmentCount() {
+    lock.readLock().lock();
+    try {
+      checkOpen();
+      return segments.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Copies the live records of sealed segments that are mostly dead to the active segment, forces it to
+   * disk and deletes their files.
+   */
+  public void compact() {
+    lock.writeLock().lock();
+    try {
+      checkOpen();
+      final List<Segment> compacted = new ArrayList<>();
+      for (Segment segment : new ArrayList<>(segments.values())) {
+        if (segment != active && segment.liveBytes * 2 < segment.position) {
+          moveLiveRecordsOutOf(segment);
+          compacted.add(segment);
+        }
+      }
+      if (compacted.isEmpty()) {
+        return;
+      }
+      active.buffer.force();
+      for (Segment segment : compacted) {
+        segments.remove(segment.number);
+        segment.close();
+        Files.delete(segment.path);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Forces the appended records of the active segment to disk.
+   *
+   * @throws IllegalStateException when a compaction failed on the executor since the last flush
+   */
+  public void flush() {
+    lock.writeLock().lock();
+    try {
+      checkOpen();
+      active.buffer.force();
+    } finally {
+      lock.writeLock().unlock();
+    }
+    final RuntimeException failure = takeCompactionFailure();
+    if (failure != null) {
+      throw new IllegalStateException("compaction failed", failure);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    lock.writeLock().lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      active.buffer.force();
+      for (Segment segment : segments.values()) {
+        segment.close();
+      }
+      segments.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+    final RuntimeException failure = takeCompactionFailure();
+    if (failure != null) {
+      throw new IOException("compaction failed", failure);
+    }
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("repository is closed");
+    }
+  }
+
+  private void compactIfRolled() {
+    if (rolledSinceCompaction.compareAndSet(true, false)) {
+      compactionExecutor.execute(this::compactInBackground);
+    }
+  }
+
+  private void compactInBackground() {
+    try {
+      compact();
+    } catch (RuntimeException e) {
+      compactionFailure = e;
+      rolledSinceCompaction.set(true);
+    }
+  }
+
+  private RuntimeException takeCompactionFailure() {
+    final RuntimeException failure = compactionFailure;
+    compactionFailure = null;
+    return failure;
+  }
+
+  private void write(Order order, long version) {
+    final ByteBuffer payload = encode(order.withVersion(version));
+    final long previous = index.put(order.getId(), append(order.getId(), version, payload));
+    if (previous != IntLongMap.ABSENT) {
+      segmentAt(previous).liveBytes -= recordSizeAt(previous);
+    }
+  }
+
+  private ByteBuffer encode(Order order) {
+    while (true) {
+      encoded.clear();
+      try {
+        writeCodec.encode(order, encoded);
+        encoded.flip();
+        return encoded;
+      } catch (BufferOverflowException e) {
+        encoded = ByteBuffer.allocate(encoded.capacity() * 2);
+      }
+    }
+  }
+
+  private long append(int id, long version, ByteBuffer payload) {
+    final int length = payload.remaining();
+    final int recordSize = HEADER_SIZE + length;
+    if (active.buffer.capacity() - active.position < recordSize) {
+      active.buffer.force();
+      active = startSegment(active.number + 1, Math.max(segmentSize, recordSize));
+      rolledSinceCompaction.set(true);
+    }
+    final int offset = active.position;
+    final ByteBuffer buffer = active.buffer;
+    buffer.putInt(offset + CRC_OFFSET, checksumOf(payload));
+    buffer.putInt(offset + ID_OFFSET, id);
+    buffer.putLong(offset + VERSION_OFFSET, version);
+    final ByteBuffer payloadRegion = buffer.duplicate();
+    payloadRegion.position(offset + HEADER_SIZE);
+    payloadRegion.put(payload);
+    buffer.putInt(offset, length);
+    active.position += recordSize;
+    active.liveBytes += recordSize;
+    return location(active.number, offset);
+  }
+
+  private void moveLiveRecordsOutOf(Segment segment) {
+    for (int offset = 0; offset < segment.position; offset += HEADER_SIZE + segment.buffer.getInt(offset)) {
+      final int id = segment.buffer.getInt(offset + ID_OFFSET);
+      if (index.get(id) == location(segment.number, offset)) {
+        index.put(id, append(id, segment.buffer.getLong(offset + VERSION_OFFSET), payloadAt(segment, offset)));
+      }
+    }
+  }
+
+  private void recover(Segment segment) {
+    final ByteBuffer buffer = segment.buffer;
+    int offset = 0;
+    while (offset + HEADER_SIZE <= buffer.capacity()) {
+      final int length = buffer.getInt(offset);
+      if (length <= 0 || length > buffer.capacity() - offset - HEADER_SIZE) {
+        break;
+      }
+      if (checksumOf(payloadAt(segment, offset)) != buffer.getInt(offset + CRC_OFFSET)) {
+        break;
+      }
+      final long previous = index.put(buffer.getInt(offset + ID_OFFSET), location(segment.number, offset));
+      if (previous != IntLongMap.ABSENT) {
+        segmentAt(previous).liveBytes -= recordSizeAt(previous);
+      }
+      segment.liveBytes += HEADER_SIZE + length;
+      offset += HEADER_SIZE + length;
+    }
+    segment.position = offset;
+  }
+
+  /**
+   * Decodes with an idle codec, so that its caches outlive the reading thread, and keeps up to
+   * {@value #IDLE_READ_CODECS} of them for later reads.
+   */
+  private Order orderAt(long location) {
+    OrderCodec codec = idleReadCodecs.poll();
+    if (codec == null) {
+      codec = new OrderCodec();
+    }
+    try {
+      return codec.decode(payloadAt(segmentAt(location), offsetOf(location)));
+    } finally {
+      idleReadCodecs.offer(codec);
+    }
+  }
+
+  private long versionAt(long location) {
+    return segmentAt(location).buffer.getLong(offsetOf(location) + VERSION_OFFSET);
+  }
+
+  private int recordSizeAt(long location) {
+    return HEADER_SIZE + segmentAt(location).buffer.getInt(offsetOf(location));
+  }
+
+  private static ByteBuffer payloadAt(Segment segment, int offset) {
+    final ByteBuffer payload = segment.buffer.duplicate();
+    payload.position(offset + HEADER_SIZE);
+    payload.limit(offset + HEADER_SIZE + segment.buffer.getInt(offset));
+    return payload;
+  }
+
+  private static int checksumOf(ByteBuffer payload) {
+    final CRC32 crc = new CRC32();
+    crc.update(payload.duplicate());
+    return (int) crc.getValue();
+  }
+
+  private Segment segmentAt(long location) {
+    return segments.get((int) (location >>> 32));
+  }
+
+  private static int offsetOf(long location) {
+    return (int) location;
+  }
+
+  private static long location(int segmentNumber, int offset) {
+    return (long) segmentNumber << 32 | offset;
+  }
+
+  private Segment startSegment(int number, int size) {
+    try {
+      final Segment segment = Segment.open(directory.resolve(String.format("orders-%08d.log", number)), number, size);
+      segments.put(number, segment);
+      return segment;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private List<Segment> existingSegments() throws IOException {
+    final TreeMap<Integer, Path> paths = new TreeMap<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_GLOB)) {
+      for (Path file : files) {
+        final String name = file.getFileName().toString();
+        paths.put(Integer.parseInt(name.substring("orders-".length(), name.length() - ".log".length())), file);
+      }
+    }
+    final List<Segment> existing = new ArrayList<>(paths.size());
+    for (Integer number : paths.keySet()) {
+      existing.add(Segment.open(paths.get(number), number, 0));
+    }
+    return existing;
+  }
+
+  private static final class Segment {
+
+    private final int number;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int position;
+    private long liveBytes;
+
+    private Segment(int number, Path path, FileChannel channel, MappedByteBuffer buffer) {
+      this.number = number;
+      this.path = path;
+      this.channel = channel;
+      this.buffer = buffer;
+    }
+
+    static Segment open(Path path, int number, int minimumSize) throws IOException {
+      final FileChannel channel = FileChannel.open(path,
+          StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      final long size = Math.max(channel.size(), minimumSize);
+      return new Segment(number, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    /**
+     * Closes the file and unmaps it, so nothing may read the segment afterwards.
+     */
+    void close() throws IOException {
+      channel.close();
+      Unmapper.unmap(buffer);
+    }
+  }
+
+  /**
+   * Releases a mapping right away instead of whenever its buffer is collected, through the JDK internals
+   * of Java 9 and later or of Java 8; where neither is reachable the mapping is left to the collector.
+   */
+  private static final class Unmapper {
+
+    private static final Method INVOKE_CLEANER;
+    private static final Object UNSAFE;
+
+    static {
+      Method invokeCleaner = null;
+      Object unsafe = null;
+      try {
+        final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+        invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        unsafe = theUnsafe.get(null);
+      } catch (ReflectiveOperationException | RuntimeException java8) {
+        invokeCleaner = null;
+      }
+      INVOKE_CLEANER = invokeCleaner;
+      UNSAFE = unsafe;
+    }
+
+    static void unmap(MappedByteBuffer buffer) {
+      try {
+        if (INVOKE_CLEANER != null) {
+          INVOKE_CLEANER.invoke(UNSAFE, buffer);
+          return;
+        }
+        final Method cleanerOf = buffer.getClass().getMethod("cleaner");
+        cleanerOf.setAccessible(true);
+        final Object cleaner = cleanerOf.invoke(buffer);
+        if (cleaner != null) {
+          cleaner.getClass().getMethod("clean").invoke(cleaner);
+        }
+      } catch (ReflectiveOperationException | RuntimeException unreachable) {
+        // the collector unmaps it once the buffer is unreachable
+      }
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+final class Hashing {
+
+  private Hashing() {
+  }
+
+  /**
+   * Spreads the bits of {@code key} over the whole int, so that its low bits can pick a stripe and its
+   * high bits a slot.
+   */
+  static int mix(int key) {
+    final int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
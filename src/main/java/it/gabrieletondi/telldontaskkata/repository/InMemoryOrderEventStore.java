@@ -0,0 +1,72 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.OrderEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class InMemoryOrderEventStore implements OrderEventStore {
+
+  private final ConcurrentMap<Integer, Stream> streams = new ConcurrentHashMap<>();
+
+  @Override
+  public boolean append(int orderId, long expectedVersion, List<OrderEvent> events) {
+    final Stream stream = streams.computeIfAbsent(orderId, id -> new Stream());
+    synchronized (stream) {
+      if (stream.version != expectedVersion) {
+        return false;
+      }
+      stream.events.addAll(events);
+      stream.version++;
+      return true;
+    }
+  }
+
+  @Override
+  public OrderHistory historyOf(int orderId) {
+    final Stream stream = streams.get(orderId);
+    if (stream == null) {
+      return null;
+    }
+    synchronized (stream) {
+      if (stream.events.isEmpty()) {
+        return null;
+      }
+      return new OrderHistory(stream.snapshot, stream.snapshotEventCount,
+          new ArrayList<>(stream.events.subList(stream.snapshotEventCount, stream.events.size())), stream.version);
+    }
+  }
+
+  @Override
+  public void saveSnapshot(int orderId, Order order, int eventCount) {
+    final Stream stream = streams.get(orderId);
+    synchronized (stream) {
+      if (eventCount > stream.snapshotEventCount && eventCount <= stream.events.size()) {
+        stream.snapshot = order.withVersion(order.getVersion());
+        stream.snapshotEventCount = eventCount;
+      }
+    }
+  }
+
+  @Override
+  public List<OrderEvent> eventsOf(int orderId) {
+    final Stream stream = streams.get(orderId);
+    if (stream == null) {
+      return Collections.emptyList();
+    }
+    synchronized (stream) {
+      return new ArrayList<>(stream.events);
+    }
+  }
+
+  private static final class Stream {
+
+    private final List<OrderEvent> events = new ArrayList<>();
+    private long version;
+    private Order snapshot;
+    private int snapshotEventCount;
+  }
+}
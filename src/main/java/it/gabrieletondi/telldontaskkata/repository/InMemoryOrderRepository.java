@@ -0,0 +1,313 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import static it.gabrieletondi.telldontaskkata.repository.Hashing.mix;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.OrderStatus;
+import it.gabrieletondi.telldontaskkata.useCase.UnknownOrderException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class InMemoryOrderRepository implements StatusIndexedOrderRepository {
+
+  private static final int DEFAULT_STRIPES = 64;
+
+  private final Stripe[] stripes;
+  private final int stripeMask;
+  private final OrderStatusIndex statusIndex = new OrderStatusIndex();
+
+  public InMemoryOrderRepository() {
+    this(DEFAULT_STRIPES);
+  }
+
+  public InMemoryOrderRepository(int stripes) {
+    if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+      throw new IllegalArgumentException("stripes must be a positive power of two: " + stripes);
+    }
+    this.stripes = new Stripe[stripes];
+    for (int i = 0; i < stripes; i++) {
+      this.stripes[i] = new Stripe(statusIndex);
+    }
+    this.stripeMask = stripes - 1;
+  }
+
+  @Override
+  public void save(Order order) {
+    final int id = order.getId();
+    stripeFor(id).put(id, order);
+  }
+
+  @Override
+  public boolean compareAndSave(Order order) {
+    final int id = order.getId();
+    return stripeFor(id).compareAndPut(id, order);
+  }
+
+  @Override
+  public Order orderWith(int orderId) {
+    final Order order = stripeFor(orderId).get(orderId);
+    if (order == null) {
+      throw new UnknownOrderException();
+    }
+    return order.withVersion(order.getVersion());
+  }
+
+  @Override
+  public List<Order> ordersWith(int[] orderIds) {
+    final List<Order> orders = new ArrayList<>(orderIds.length);
+    for (int orderId : orderIds) {
+      final Order order = stripeFor(orderId).get(orderId);
+      orders.add(order == null ? null : order.withVersion(order.getVersion()));
+    }
+    return orders;
+  }
+
+  @Override
+  public void saveAll(Collection<Order> orders) {
+    final List<List<Order>> byStripe = byStripe(orders);
+    for (int i = 0; i < stripes.length; i++) {
+      if (byStripe.get(i) != null) {
+        stripes[i].putAll(byStripe.get(i));
+      }
+    }
+  }
+
+  @Override
+  public void saveAllAtVersions(Collection<Order> orders) {
+    final List<List<Order>> byStripe = byStripe(orders);
+    for (int i = 0; i < stripes.length; i++) {
+      if (byStripe.get(i) != null) {
+        stripes[i].putAllAtVersions(byStripe.get(i));
+      }
+    }
+  }
+
+  @Override
+  public int[] compareAndSaveAll(Collection<Order> orders) {
+    final List<List<Order>> byStripe = byStripe(orders);
+    final int[] conflicts = new int[orders.size()];
+    int count = 0;
+    for (int i = 0; i < stripes.length; i++) {
+      if (byStripe.get(i) != null) {
+        count = stripes[i].compareAndPutAll(byStripe.get(i), conflicts, count);
+      }
+    }
+    return Arrays.copyOf(conflicts, count);
+  }
+
+  private List<List<Order>> byStripe(Collection<Order> orders) {
+    final List<List<Order>> byStripe = new ArrayList<>(stripes.length);
+    for (int i = 0; i < stripes.length; i++) {
+      byStripe.add(null);
+    }
+    for (Order order : orders) {
+      final int index = mix(order.getId()) & stripeMask;
+      if (byStripe.get(index) == null) {
+        byStripe.set(index, new ArrayList<>());
+      }
+      byStripe.get(index).add(order);
+    }
+    return byStripe;
+  }
+
+  @Override
+  public int countOf(OrderStatus status) {
+    return statusIndex.countOf(status);
+  }
+
+  @Override
+  public IntStream orderIdsWith(OrderStatus status) {
+    return statusIndex.idsOf(status);
+  }
+
+  @Override
+  public Stream<Order> ordersWith(OrderStatus status) {
+    return orderIdsWith(status)
+        .mapToObj(id -> stripeFor(id).get(id))
+        .filter(order -> order != null && order.has(status))
+        .map(order -> order.withVersion(order.getVersion()));
+  }
+
+  public int size() {
+    int size = 0;
+    for (Stripe stripe : stripes) {
+      size += stripe.size();
+    }
+    return size;
+  }
+
+  private Stripe stripeFor(int id) {
+    return stripes[mix(id) & stripeMask];
+  }
+
+  private static final class Stripe {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+    private final OrderStatusIndex statusIndex;
+    private Table table = new Table(INITIAL_CAPACITY);
+    private int size;
+
+    Stripe(OrderStatusIndex statusIndex) {
+      this.statusIndex = statusIndex;
+    }
+
+    Order get(int id) {
+      long stamp = lock.tryOptimisticRead();
+      Order found = table.find(id);
+      if (!lock.validate(stamp)) {
+        stamp = lock.readLock();
+        try {
+          found = table.find(id);
+        } finally {
+          lock.unlockRead(stamp);
+        }
+      }
+      return found;
+    }
+
+    void put(int id, Order order) {
+      final long stamp = lock.writeLock();
+      try {
+        storeNextVersionOf(id, order);
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    void putAll(List<Order> orders) {
+      final long stamp = lock.writeLock();
+      try {
+        for (Order order : orders) {
+          storeNextVersionOf(order.getId(), order);
+        }
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    void putAllAtVersions(List<Order> orders) {
+      final long stamp = lock.writeLock();
+      try {
+        for (Order order : orders) {
+          final Order stored = table.find(order.getId());
+          final long version = stored == null ? 0 : stored.getVersion();
+          store(order.getId(), order.withVersion(Math.max(order.getVersion(), version + 1)));
+        }
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    boolean compareAndPut(int id, Order order) {
+      final long stamp = lock.writeLock();
+      try {
+        return storeIfCurrent(id, order);
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    int compareAndPutAll(List<Order> orders, int[] conflicts, int count) {
+      final long stamp = lock.writeLock();
+      try {
+        for (Order order : orders) {
+          if (!storeIfCurrent(order.getId(), order)) {
+            conflicts[count++] = order.getId();
+          }
+        }
+        return count;
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    private boolean storeIfCurrent(int id, Order order) {
+      final Order stored = table.find(id);
+      final long storedVersion = stored == null ? 0 : stored.getVersion();
+      if (storedVersion != order.getVersion()) {
+        return false;
+      }
+      store(id, order.withVersion(storedVersion + 1));
+      return true;
+    }
+
+    private void storeNextVersionOf(int id, Order order) {
+      final Order stored = table.find(id);
+      store(id, order.withVersion((stored == null ? order.getVersion() : stored.getVersion()) + 1));
+    }
+
+    private void store(int id, Order order) {
+      if (size + 1 > table.capacity() * 3 / 4) {
+        table = table.grown();
+      }
+      final Order previous = table.insert(id, order);
+      if (previous == null) {
+        size++;
+      }
+      statusIndex.replaced(id, previous, order);
+    }
+
+    int size() {
+      final long stamp = lock.readLock();
+      try {
+        return size;
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+  }
+
+  private static final class Table {
+
+    private final int[] keys;
+    private final Order[] values;
+    private final int mask;
+
+    Table(int capacity) {
+      this.keys = new int[capacity];
+      this.values = new Order[capacity];
+      this.mask = capacity - 1;
+    }
+
+    int capacity() {
+      return values.length;
+    }
+
+    Order find(int id) {
+      for (int slot = Integer.rotateLeft(mix(id), 16) & mask; ; slot = slot + 1 & mask) {
+        final Order value = values[slot];
+        if (value == null || keys[slot] == id) {
+          return value;
+        }
+      }
+    }
+
+    Order insert(int id, Order order) {
+      for (int slot = Integer.rotateLeft(mix(id), 16) & mask; ; slot = slot + 1 & mask) {
+        final Order previous = values[slot];
+        if (previous == null || keys[slot] == id) {
+          keys[slot] = id;
+          values[slot] = order;
+          return previous;
+        }
+      }
+    }
+
+    Table grown() {
+      final Table grown = new Table(values.length * 2);
+      for (int slot = 0; slot < values.length; slot++) {
+        if (values[slot] != null) {
+          grown.insert(keys[slot], values[slot]);
+        }
+      }
+      return grown;
+    }
+  }
+}
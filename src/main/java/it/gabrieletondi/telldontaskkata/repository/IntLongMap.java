@@ -0,0 +1,88 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import static it.gabrieletondi.telldontaskkata.repository.Hashing.mix;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from int keys to non-negative long values, without boxing. {@link #ABSENT} stands
+ * for a missing key, so it cannot be stored.
+ */
+final class IntLongMap {
+
+  static final long ABSENT = -1;
+
+  private int[] keys;
+  private long[] values;
+  private int mask;
+  private int size;
+
+  IntLongMap(int expectedSize) {
+    int capacity = 16;
+    while (capacity * 3 / 4 < expectedSize) {
+      capacity <<= 1;
+    }
+    allocate(capacity);
+  }
+
+  long get(int key) {
+    for (int slot = slotOf(key); ; slot = slot + 1 & mask) {
+      final long value = values[slot];
+      if (value == ABSENT || keys[slot] == key) {
+        return value;
+      }
+    }
+  }
+
+  /**
+   * Returns the value {@code key} had before, or {@link #ABSENT}.
+   */
+  long put(int key, long value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("values must not be negative: " + value);
+    }
+    if (size + 1 > values.length * 3 / 4) {
+      grow();
+    }
+    for (int slot = slotOf(key); ; slot = slot + 1 & mask) {
+      final long previous = values[slot];
+      if (previous == ABSENT) {
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        return ABSENT;
+      }
+      if (keys[slot] == key) {
+        values[slot] = value;
+        return previous;
+      }
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  private int slotOf(int key) {
+    return Integer.rotateLeft(mix(key), 16) & mask;
+  }
+
+  private void grow() {
+    final int[] oldKeys = keys;
+    final long[] oldValues = values;
+    allocate(values.length << 1);
+    size = 0;
+    for (int i = 0; i < oldValues.length; i++) {
+      if (oldValues[i] != ABSENT) {
+        put(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new int[capacity];
+    values = new long[capacity];
+    Arrays.fill(values, ABSENT);
+    mask = capacity - 1;
+  }
+}
@@ -0,0 +1,29 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import it.gabrieletondi.telldontaskkata.domain.ProductInterner;
+import it.gabrieletondi.telldontaskkata.domain.Products;
+import java.util.List;
+
+/**
+ * Replaces the products found by {@code delegate} with their canonical instances, so the orders created
+ * from them share one copy of each product however many copies the delegate returns.
+ */
+public class InterningProductCatalog implements ProductCatalog {
+
+  private final ProductCatalog delegate;
+  private final ProductInterner interner;
+
+  public InterningProductCatalog(ProductCatalog delegate) {
+    this(delegate, new ProductInterner());
+  }
+
+  public InterningProductCatalog(ProductCatalog delegate, ProductInterner interner) {
+    this.delegate = delegate;
+    this.interner = interner;
+  }
+
+  @Override
+  public Products productsWith(List<String> productNames) {
+    return delegate.productsWith(productNames).internedWith(interner);
+  }
+}
@@ -0,0 +1,28 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.OrderEvent;
+import java.util.List;
+
+public interface OrderEventStore {
+
+  /**
+   * Appends {@code events} to the order's stream as one commit, bumping its version, only if the stream is
+   * still at {@code expectedVersion}; a stream nothing was appended to is at version 0.
+   */
+  boolean append(int orderId, long expectedVersion, List<OrderEvent> events);
+
+  /**
+   * Returns the latest snapshot of the order with the events appended after it, or null for an order
+   * without events.
+   */
+  OrderHistory historyOf(int orderId);
+
+  /**
+   * Keeps {@code order} as the state of the order after its first {@code eventCount} events, unless a later
+   * snapshot is already kept.
+   */
+  void saveSnapshot(int orderId, Order order, int eventCount);
+
+  List<OrderEvent> eventsOf(int orderId);
+}
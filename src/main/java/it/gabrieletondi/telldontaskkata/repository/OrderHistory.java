@@ -0,0 +1,43 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.OrderEvent;
+import java.util.List;
+
+public class OrderHistory {
+
+  private final Order snapshot;
+  private final int snapshotEventCount;
+  private final List<OrderEvent> eventsAfterSnapshot;
+  private final long version;
+
+  public OrderHistory(Order snapshot, int snapshotEventCount, List<OrderEvent> eventsAfterSnapshot, long version) {
+    this.snapshot = snapshot;
+    this.snapshotEventCount = snapshotEventCount;
+    this.eventsAfterSnapshot = eventsAfterSnapshot;
+    this.version = version;
+  }
+
+  /**
+   * Rebuilds the order by replaying the events after the snapshot on a copy of it.
+   */
+  Order replay() {
+    Order order = snapshot == null ? eventsAfterSnapshot.get(0).newOrder() : snapshot.withVersion(version);
+    for (OrderEvent event : eventsAfterSnapshot) {
+      event.replayOn(order);
+    }
+    return order.withVersion(version);
+  }
+
+  int eventCount() {
+    return snapshotEventCount + eventsAfterSnapshot.size();
+  }
+
+  int eventsAfterSnapshot() {
+    return eventsAfterSnapshot.size();
+  }
+
+  long version() {
+    return version;
+  }
+}
@@ -0,0 +1,6 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+public interface OrderIdGenerator {
+
+  int nextId();
+}
@@ -1,10 +1,77 @@
 package it.gabrieletondi.telldontaskkata.repository;
 
 import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.useCase.UnknownOrderException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 
 public interface OrderRepository {
 
   void save(Order order);
 
   Order orderWith(int orderId);
+
+  /**
+   * Saves the order only if the stored one still has the order's version, and reports whether it did.
+   * Repositories that do not track versions save unconditionally.
+   */
+  default boolean compareAndSave(Order order) {
+    save(order);
+    return true;
+  }
+
+  /**
+   * Returns the orders in the same positions as their ids, with null for ids that are not stored.
+   */
+  default List<Order> ordersWith(int[] orderIds) {
+    final List<Order> orders = new ArrayList<>(orderIds.length);
+    for (int orderId : orderIds) {
+      try {
+        orders.add(orderWith(orderId));
+      } catch (UnknownOrderException unknown) {
+        orders.add(null);
+      }
+    }
+    return orders;
+  }
+
+  /**
+   * Saves each order like {@link #compareAndSave}, and returns the ids of the orders it did not save
+   * because the stored one had moved on.
+   */
+  default int[] compareAndSaveAll(Collection<Order> orders) {
+    final int[] conflicts = new int[orders.size()];
+    int count = 0;
+    for (Order order : orders) {
+      if (!compareAndSave(order)) {
+        conflicts[count++] = order.getId();
+      }
+    }
+    return Arrays.copyOf(conflicts, count);
+  }
+
+  default void saveAll(Collection<Order> orders) {
+    for (Order order : orders) {
+      save(order);
+    }
+  }
+
+  /**
+   * Saves each order so that it is stored with the version it carries, or with the next version after the
+   * stored one if that is already there or past it. Decorators that hand out versions themselves use it to
+   * write several changes of an order at once. The default saves an order as many times as it takes.
+   */
+  default void saveAllAtVersions(Collection<Order> orders) {
+    final List<Order> stored = ordersWith(orders.stream().mapToInt(Order::getId).toArray());
+    int i = 0;
+    for (Order order : orders) {
+      final Order current = stored.get(i++);
+      long version = current == null ? order.getVersion() - 1 : current.getVersion();
+      do {
+        save(order.withVersion(version));
+      } while (++version < order.getVersion());
+    }
+  }
 }
@@ -0,0 +1,239 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.OrderStatus;
+import it.gabrieletondi.telldontaskkata.domain.OrderTransitions;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The ids of the stored orders, grouped by status. Each status keeps its ids in bitmap pages of 65536 ids,
+ * allocated when the first id of their range arrives, behind a directory that only grows as far as the
+ * highest page; each page also notes which of its words were ever used, so sparse statuses scan quickly.
+ * Bits are flipped with compare-and-set, so saves to different stripes of the repository never wait on
+ * each other here. Ids are streamed in unsigned order, a chunk at a time; like the counts, they may or may
+ * not reflect saves made meanwhile.
+ */
+final class OrderStatusIndex {
+
+  private static final List<OrderStatus> STATUSES = OrderTransitions.statuses();
+  private static final int CHUNK_SIZE = 1024;
+
+  private final IdSet[] idSets = new IdSet[STATUSES.size()];
+
+  OrderStatusIndex() {
+    for (int i = 0; i < idSets.length; i++) {
+      idSets[i] = new IdSet();
+    }
+  }
+
+  /**
+   * Records that the order with {@code id} was replaced by {@code current}; {@code previous} is the order
+   * stored before, or null for a new one. Callers hold the lock of the order's stripe, so changes to one id
+   * never race each other.
+   */
+  void replaced(int id, Order previous, Order current) {
+    final int from = previous == null ? -1 : codeOf(previous);
+    final int to = codeOf(current);
+    if (from == to) {
+      return;
+    }
+    idSets[to].add(id);
+    if (from >= 0) {
+      idSets[from].remove(id);
+    }
+  }
+
+  int countOf(OrderStatus status) {
+    return idSets[status.code()].size();
+  }
+
+  IntStream idsOf(OrderStatus status) {
+    final Spliterator.OfInt ids = Spliterators.spliteratorUnknownSize(new Chunks(idSets[status.code()]),
+        Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+    return StreamSupport.intStream(ids, false);
+  }
+
+  private static int codeOf(Order order) {
+    for (OrderStatus status : STATUSES) {
+      if (order.has(status)) {
+        return status.code();
+      }
+    }
+    throw new IllegalStateException("order " + order.getId() + " has an unknown status");
+  }
+
+  private static final class Chunks implements PrimitiveIterator.OfInt {
+
+    private final IdSet idSet;
+    private final int[] chunk = new int[CHUNK_SIZE];
+    private long cursor;
+    private int length;
+    private int next;
+
+    Chunks(IdSet idSet) {
+      this.idSet = idSet;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next == length && cursor <= 0xFFFF_FFFFL && (length == 0 || length == CHUNK_SIZE)) {
+        fill();
+      }
+      return next < length;
+    }
+
+    @Override
+    public int nextInt() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return chunk[next++];
+    }
+
+    private void fill() {
+      length = idSet.copyFrom(cursor, chunk);
+      next = 0;
+      cursor = length == 0 ? 0x1_0000_0000L : Integer.toUnsignedLong(chunk[length - 1]) + 1;
+    }
+  }
+
+  private static final class IdSet {
+
+    private static final int MAX_PAGES = 1 << 16;
+
+    private volatile AtomicReferenceArray<Page> pages = new AtomicReferenceArray<>(1);
+    private final LongAdder size = new LongAdder();
+
+    void add(int id) {
+      if (pageFor(id >>> 16).add(id & 0xFFFF)) {
+        size.increment();
+      }
+    }
+
+    void remove(int id) {
+      final AtomicReferenceArray<Page> directory = pages;
+      final int key = id >>> 16;
+      final Page page = key < directory.length() ? directory.get(key) : null;
+      if (page != null && page.remove(id & 0xFFFF)) {
+        size.decrement();
+      }
+    }
+
+    int size() {
+      return (int) size.sum();
+    }
+
+    /**
+     * Copies into {@code ids} the ids from the unsigned position {@code from} on, and returns how many it
+     * copied.
+     */
+    int copyFrom(long from, int[] ids) {
+      final AtomicReferenceArray<Page> directory = pages;
+      final int firstKey = (int) (from >>> 16);
+      int copied = 0;
+      for (int key = firstKey; key < directory.length() && copied < ids.length; key++) {
+        final Page page = directory.get(key);
+        if (page != null) {
+          copied = page.copyFrom(key == firstKey ? (int) from & 0xFFFF : 0, key << 16, ids, copied);
+        }
+      }
+      return copied;
+    }
+
+    /**
+     * Returns the page of {@code key}, creating it and growing the directory under this set's monitor the
+     * first time; every later lookup of the page is a plain read.
+     */
+    private Page pageFor(int key) {
+      final AtomicReferenceArray<Page> directory = pages;
+      final Page page = key < directory.length() ? directory.get(key) : null;
+      return page != null ? page : createdPageFor(key);
+    }
+
+    private synchronized Page createdPageFor(int key) {
+      AtomicReferenceArray<Page> directory = pages;
+      if (key >= directory.length()) {
+        final AtomicReferenceArray<Page> grown =
+            new AtomicReferenceArray<>(Math.min(MAX_PAGES, Math.max(key + 1, directory.length() * 2)));
+        for (int i = 0; i < directory.length(); i++) {
+          grown.set(i, directory.get(i));
+        }
+        pages = directory = grown;
+      }
+      Page page = directory.get(key);
+      if (page == null) {
+        page = new Page();
+        directory.set(key, page);
+      }
+      return page;
+    }
+  }
+
+  /**
+   * A bitmap of 65536 ids, with a summary of the words that ever held an id so that scans skip the rest.
+   * Summary bits are never cleared, as a concurrent add could refill the word.
+   */
+  private static final class Page {
+
+    private final AtomicLongArray words = new AtomicLongArray(1 << 10);
+    private final AtomicLongArray used = new AtomicLongArray(1 << 4);
+
+    boolean add(int low) {
+      final int word = low >>> 6;
+      final long bit = 1L << low;
+      for (long bits = words.get(word); (bits & bit) == 0; bits = words.get(word)) {
+        if (words.compareAndSet(word, bits, bits | bit)) {
+          if (bits == 0) {
+            markUsed(word);
+          }
+          return true;
+        }
+      }
+      return false;
+    }
+
+    boolean remove(int low) {
+      final int word = low >>> 6;
+      final long bit = 1L << low;
+      for (long bits = words.get(word); (bits & bit) != 0; bits = words.get(word)) {
+        if (words.compareAndSet(word, bits, bits & ~bit)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    int copyFrom(int low, int high, int[] ids, int copied) {
+      final int firstWord = low >>> 6;
+      for (int summary = firstWord >>> 6; summary < used.length() && copied < ids.length; summary++) {
+        long usedWords = summary == firstWord >>> 6 ? used.get(summary) & -1L << firstWord : used.get(summary);
+        for (; usedWords != 0 && copied < ids.length; usedWords &= usedWords - 1) {
+          final int word = summary << 6 | Long.numberOfTrailingZeros(usedWords);
+          long bits = word == firstWord ? words.get(word) & -1L << low : words.get(word);
+          for (; bits != 0 && copied < ids.length; bits &= bits - 1) {
+            ids[copied++] = high | word << 6 | Long.numberOfTrailingZeros(bits);
+          }
+        }
+      }
+      return copied;
+    }
+
+    private void markUsed(int word) {
+      final long bit = 1L << word;
+      for (long bits = used.get(word >>> 6); (bits & bit) == 0; bits = used.get(word >>> 6)) {
+        if (used.compareAndSet(word >>> 6, bits, bits | bit)) {
+          return;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SequentialOrderIdGenerator implements OrderIdGenerator {
+
+  private final AtomicInteger next;
+
+  public SequentialOrderIdGenerator() {
+    this(1);
+  }
+
+  public SequentialOrderIdGenerator(int firstId) {
+    if (firstId < 0) {
+      throw new IllegalArgumentException("first id must not be negative: " + firstId);
+    }
+    this.next = new AtomicInteger(firstId);
+  }
+
+  @Override
+  public int nextId() {
+    final int id = next.getAndIncrement();
+    if (id < 0) {
+      throw new IllegalStateException("order ids exhausted");
+    }
+    return id;
+  }
+}
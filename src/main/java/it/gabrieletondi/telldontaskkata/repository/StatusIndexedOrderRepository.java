@@ -0,0 +1,30 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.OrderStatus;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * An {@link OrderRepository} that can find its orders by status without scanning them all.
+ */
+public interface StatusIndexedOrderRepository extends OrderRepository {
+
+  int countOf(OrderStatus status);
+
+  /**
+   * Streams the ids of the orders stored with {@code status}. The stream is weakly consistent: it never
+   * fails because of concurrent saves, and it may or may not see them.
+   */
+  IntStream orderIdsWith(OrderStatus status);
+
+  /**
+   * Streams the orders stored with {@code status}, skipping any that moved to another status before they
+   * were read.
+   */
+  default Stream<Order> ordersWith(OrderStatus status) {
+    return orderIdsWith(status)
+        .mapToObj(id -> ordersWith(new int[]{id}).get(0))
+        .filter(order -> order != null && order.has(status));
+  }
+}
@@ -0,0 +1,216 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers saves and writes them to the delegate in one {@link OrderRepository#saveAllAtVersions} call, either
+ * by the thread whose save fills the buffer to {@code maximumPendingOrders} or by {@code scheduler} once the
+ * oldest buffered save has waited {@code flushDelay}. Saves of the same order id in between collapse into the
+ * last one. Reads see buffered orders before the delegate's.
+ * <p>
+ * A buffered order carries the version the delegate would have given it, and every save of it moves that
+ * version on, so {@link #compareAndSave} checks and replaces buffered orders without going to the delegate.
+ * For an order that is not buffered, it reads the stored version once and buffers the save too. Like
+ * {@link #compareAndSave}, versions assume a saved order carries the version it was read with.
+ */
+public class WriteBehindOrderRepository implements OrderRepository, AutoCloseable {
+
+  private final OrderRepository delegate;
+  private final int maximumPendingOrders;
+  private final long flushDelayNanos;
+  private final ScheduledExecutorService scheduler;
+  private final Object flushLock = new Object();
+  private Map<Integer, Order> pending = new LinkedHashMap<>();
+  private Map<Integer, Order> writing = Collections.emptyMap();
+  private ScheduledFuture<?> scheduledFlush;
+  private boolean closed;
+
+  public WriteBehindOrderRepository(OrderRepository delegate, int maximumPendingOrders, Duration flushDelay,
+      ScheduledExecutorService scheduler) {
+    if (maximumPendingOrders <= 0) {
+      throw new IllegalArgumentException("maximum pending orders must be positive: " + maximumPendingOrders);
+    }
+    this.delegate = delegate;
+    this.maximumPendingOrders = maximumPendingOrders;
+    this.flushDelayNanos = flushDelay.toNanos();
+    this.scheduler = scheduler;
+  }
+
+  @Override
+  public void save(Order order) {
+    saveAll(Collections.singletonList(order));
+  }
+
+  @Override
+  public void saveAll(Collection<Order> orders) {
+    synchronized (this) {
+      checkOpen();
+      for (Order order : orders) {
+        final Order buffered = bufferedOrNull(order.getId());
+        final long version = buffered == null ? order.getVersion() : buffered.getVersion();
+        pending.put(order.getId(), order.withVersion(version + 1));
+      }
+    }
+    flushIfFull();
+  }
+
+  /**
+   * Compares against the buffered order when there is one, and against the version the delegate stores
+   * otherwise; either way a successful save is buffered.
+   */
+  @Override
+  public boolean compareAndSave(Order order) {
+    synchronized (this) {
+      checkOpen();
+      Order current = bufferedOrNull(order.getId());
+      if (current == null) {
+        current = delegate.ordersWith(new int[]{order.getId()}).get(0);
+      }
+      final long version = current == null ? 0 : current.getVersion();
+      if (version != order.getVersion()) {
+        return false;
+      }
+      pending.put(order.getId(), order.withVersion(version + 1));
+    }
+    flushIfFull();
+    return true;
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("repository is closed");
+    }
+  }
+
+  private void flushIfFull() {
+    final boolean full;
+    synchronized (this) {
+      full = pending.size() >= maximumPendingOrders;
+      if (!full && !pending.isEmpty()) {
+        scheduleFlushIfIdle();
+      }
+    }
+    if (full) {
+      flush();
+    }
+  }
+
+  @Override
+  public Order orderWith(int orderId) {
+    final Order buffered = bufferedOrderWith(orderId);
+    return buffered != null ? buffered : delegate.orderWith(orderId);
+  }
+
+  @Override
+  public List<Order> ordersWith(int[] orderIds) {
+    final List<Order> orders = new ArrayList<>(orderIds.length);
+    int missing = 0;
+    for (int orderId : orderIds) {
+      final Order buffered = bufferedOrderWith(orderId);
+      orders.add(buffered);
+      missing += buffered == null ? 1 : 0;
+    }
+    if (missing == 0) {
+      return orders;
+    }
+    final int[] missingIds = new int[missing];
+    for (int i = 0, j = 0; i < orderIds.length; i++) {
+      if (orders.get(i) == null) {
+        missingIds[j++] = orderIds[i];
+      }
+    }
+    final List<Order> stored = delegate.ordersWith(missingIds);
+    for (int i = 0, j = 0; i < orderIds.length; i++) {
+      if (orders.get(i) == null) {
+        orders.set(i, stored.get(j++));
+      }
+    }
+    return orders;
+  }
+
+  private synchronized Order bufferedOrderWith(int orderId) {
+    final Order buffered = bufferedOrNull(orderId);
+    return buffered == null ? null : buffered.withVersion(buffered.getVersion());
+  }
+
+  private Order bufferedOrNull(int orderId) {
+    final Order buffered = pending.get(orderId);
+    return buffered != null ? buffered : writing.get(orderId);
+  }
+
+  /**
+   * Writes every buffered order to the delegate before returning. If the delegate fails, the orders stay
+   * buffered, behind any newer save of the same id, another flush is scheduled and the failure
+   * is rethrown.
+   */
+  public void flush() {
+    synchronized (flushLock) {
+      final Map<Integer, Order> batch;
+      synchronized (this) {
+        if (scheduledFlush != null) {
+          scheduledFlush.cancel(false);
+          scheduledFlush = null;
+        }
+        if (pending.isEmpty()) {
+          return;
+        }
+        batch = pending;
+        writing = batch;
+        pending = new LinkedHashMap<>();
+      }
+      try {
+        delegate.saveAllAtVersions(batch.values());
+      } catch (RuntimeException e) {
+        synchronized (this) {
+          batch.putAll(pending);
+          pending = batch;
+          scheduleFlushIfIdle();
+        }
+        throw e;
+      } finally {
+        synchronized (this) {
+          writing = Collections.emptyMap();
+        }
+      }
+    }
+  }
+
+  private void scheduleFlushIfIdle() {
+    if (!closed && scheduledFlush == null) {
+      scheduledFlush = scheduler.schedule(this::flushQuietly, flushDelayNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      // the orders stay buffered and a retry is already scheduled
+    }
+  }
+
+  public synchronized int pendingCount() {
+    return pending.size();
+  }
+
+  /**
+   * Refuses further saves and writes the buffered ones to the delegate.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      closed = true;
+    }
+    flush();
+  }
+}
@@ -0,0 +1,17 @@
+package it.gabrieletondi.telldontaskkata.service;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+public interface AsyncShipmentService {
+
+  CompletableFuture<Void> ship(Order order);
+
+  /**
+   * Runs the blocking shipments of {@code shipmentService} on {@code executor}.
+   */
+  static AsyncShipmentService over(ShipmentService shipmentService, Executor executor) {
+    return order -> CompletableFuture.runAsync(() -> shipmentService.ship(order), executor);
+  }
+}
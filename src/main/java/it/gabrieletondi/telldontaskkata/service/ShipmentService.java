@@ -1,8 +1,19 @@
 package it.gabrieletondi.telldontaskkata.service;
 
 import it.gabrieletondi.telldontaskkata.domain.Order;
+import java.util.Collection;
 
 public interface ShipmentService {
 
   void ship(Order order);
+
+  /**
+   * Ships {@code orders} as one manifest. Carriers that bill per call should override this; the default
+   * ships the orders one by one.
+   */
+  default void shipAll(Collection<Order> orders) {
+    for (Order order : orders) {
+      ship(order);
+    }
+  }
 }
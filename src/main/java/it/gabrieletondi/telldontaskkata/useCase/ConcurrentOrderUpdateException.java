@@ -0,0 +1,4 @@
+package it.gabrieletondi.telldontaskkata.useCase;
+
+public class ConcurrentOrderUpdateException extends RuntimeException {
+}
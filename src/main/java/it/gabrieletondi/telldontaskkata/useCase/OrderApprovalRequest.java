@@ -1,6 +1,7 @@
 package it.gabrieletondi.telldontaskkata.useCase;
 
 import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.TransitionOutcome;
 
 public abstract class OrderApprovalRequest {
 
@@ -10,5 +11,9 @@ public abstract class OrderApprovalRequest {
     return orderId;
   }
 
-  public abstract void updateOrderStatus(Order order);
+  public void updateOrderStatus(Order order) {
+    tryUpdateOrderStatus(order).orThrow();
+  }
+
+  public abstract TransitionOutcome tryUpdateOrderStatus(Order order);
 }
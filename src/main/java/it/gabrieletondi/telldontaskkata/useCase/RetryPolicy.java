@@ -0,0 +1,71 @@
+package it.gabrieletondi.telldontaskkata.useCase;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.TransitionOutcome;
+import it.gabrieletondi.telldontaskkata.repository.AsyncOrderRepository;
+import it.gabrieletondi.telldontaskkata.repository.OrderRepository;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+public class RetryPolicy {
+
+  private static final int DEFAULT_ATTEMPTS = 8;
+
+  private final int maxAttempts;
+
+  private RetryPolicy(int maxAttempts) {
+    if (maxAttempts <= 0) {
+      throw new IllegalArgumentException("max attempts must be positive: " + maxAttempts);
+    }
+    this.maxAttempts = maxAttempts;
+  }
+
+  public static RetryPolicy upTo(int maxAttempts) {
+    return new RetryPolicy(maxAttempts);
+  }
+
+  public static RetryPolicy defaultPolicy() {
+    return upTo(DEFAULT_ATTEMPTS);
+  }
+
+  public TransitionOutcome save(OrderRepository orderRepository, Order changedOrder,
+      Function<Order, TransitionOutcome> change) {
+    Order order = changedOrder;
+    for (int attempt = 1; !orderRepository.compareAndSave(order); attempt++) {
+      if (attempt == maxAttempts) {
+        throw new ConcurrentOrderUpdateException();
+      }
+      Thread.yield();
+      order = orderRepository.orderWith(order.getId());
+      final TransitionOutcome outcome = change.apply(order);
+      if (!outcome.isApplied()) {
+        return outcome;
+      }
+    }
+    return TransitionOutcome.APPLIED;
+  }
+
+  public CompletableFuture<TransitionOutcome> saveAsync(AsyncOrderRepository orderRepository, Order changedOrder,
+      Function<Order, TransitionOutcome> change) {
+    return saveAsync(orderRepository, changedOrder, change, 1);
+  }
+
+  private CompletableFuture<TransitionOutcome> saveAsync(AsyncOrderRepository orderRepository, Order order,
+      Function<Order, TransitionOutcome> change, int attempt) {
+    return orderRepository.compareAndSave(order).thenCompose(saved -> {
+      if (saved) {
+        return CompletableFuture.completedFuture(TransitionOutcome.APPLIED);
+      }
+      if (attempt == maxAttempts) {
+        throw new ConcurrentOrderUpdateException();
+      }
+      return orderRepository.orderWith(order.getId()).thenCompose(current -> {
+        final TransitionOutcome outcome = change.apply(current);
+        if (!outcome.isApplied()) {
+          return CompletableFuture.completedFuture(outcome);
+        }
+        return saveAsync(orderRepository, current, change, attempt + 1);
+      });
+    });
+  }
+}
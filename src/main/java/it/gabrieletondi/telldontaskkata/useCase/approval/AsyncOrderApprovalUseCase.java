@@ -0,0 +1,38 @@
+package it.gabrieletondi.telldontaskkata.useCase.approval;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import it.gabrieletondi.telldontaskkata.domain.TransitionOutcome;
+import it.gabrieletondi.telldontaskkata.repository.AsyncOrderRepository;
+import it.gabrieletondi.telldontaskkata.useCase.OrderApprovalRequest;
+import it.gabrieletondi.telldontaskkata.useCase.RetryPolicy;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncOrderApprovalUseCase {
+
+  private final AsyncOrderRepository orderRepository;
+  private final RetryPolicy retryPolicy;
+
+  public AsyncOrderApprovalUseCase(AsyncOrderRepository orderRepository) {
+    this(orderRepository, RetryPolicy.defaultPolicy());
+  }
+
+  public AsyncOrderApprovalUseCase(AsyncOrderRepository orderRepository, RetryPolicy retryPolicy) {
+    this.orderRepository = orderRepository;
+    this.retryPolicy = retryPolicy;
+  }
+
+  public CompletableFuture<Void> run(OrderApprovalRequest request) {
+    return tryRun(request).thenAccept(TransitionOutcome::orThrow);
+  }
+
+  public CompletableFuture<TransitionOutcome> tryRun(OrderApprovalRequest request) {
+    return orderRepository.orderWith(request.getOrderId()).thenCompose(order -> {
+      final TransitionOutcome outcome = request.tryUpdateOrderStatus(order);
+      if (!outcome.isApplied()) {
+        return completedFuture(outcome);
+      }
+      return retryPolicy.saveAsync(orderRepository, order, request::tryUpdateOrderStatus);
+    });
+  }
+}
@@ -0,0 +1,37 @@
+package it.gabrieletondi.telldontaskkata.useCase.approval;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+@ToString
+@EqualsAndHashCode
+public class OrderApprovalResult {
+
+  private final int orderId;
+  private final RuntimeException failure;
+
+  private OrderApprovalResult(int orderId, RuntimeException failure) {
+    this.orderId = orderId;
+    this.failure = failure;
+  }
+
+  static OrderApprovalResult succeeded(int orderId) {
+    return new OrderApprovalResult(orderId, null);
+  }
+
+  static OrderApprovalResult failed(int orderId, RuntimeException failure) {
+    return new OrderApprovalResult(orderId, failure);
+  }
+
+  public int getOrderId() {
+    return orderId;
+  }
+
+  public boolean isSuccessful() {
+    return failure == null;
+  }
+
+  public RuntimeException getFailure() {
+    return failure;
+  }
+}
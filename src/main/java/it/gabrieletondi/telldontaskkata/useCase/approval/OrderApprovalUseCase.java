@@ -1,20 +1,117 @@
 package it.gabrieletondi.telldontaskkata.useCase.approval;
 
 import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.TransitionOutcome;
 import it.gabrieletondi.telldontaskkata.repository.OrderRepository;
+import it.gabrieletondi.telldontaskkata.useCase.ConcurrentOrderUpdateException;
 import it.gabrieletondi.telldontaskkata.useCase.OrderApprovalRequest;
+import it.gabrieletondi.telldontaskkata.useCase.RetryPolicy;
+import it.gabrieletondi.telldontaskkata.useCase.UnknownOrderException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class OrderApprovalUseCase {
 
   private final OrderRepository orderRepository;
+  private final RetryPolicy retryPolicy;
 
   public OrderApprovalUseCase(OrderRepository orderRepository) {
+    this(orderRepository, RetryPolicy.defaultPolicy());
+  }
+
+  public OrderApprovalUseCase(OrderRepository orderRepository, RetryPolicy retryPolicy) {
     this.orderRepository = orderRepository;
+    this.retryPolicy = retryPolicy;
   }
 
   public void run(OrderApprovalRequest request) {
+    tryRun(request).orThrow();
+  }
+
+  public TransitionOutcome tryRun(OrderApprovalRequest request) {
     final Order order = orderRepository.orderWith(request.getOrderId());
-    request.updateOrderStatus(order);
-    orderRepository.save(order);
+    final TransitionOutcome outcome = request.tryUpdateOrderStatus(order);
+    if (!outcome.isApplied()) {
+      return outcome;
+    }
+    return retryPolicy.save(orderRepository, order, request::tryUpdateOrderStatus);
+  }
+
+  /**
+   * Applies every request, in order, and saves the changed orders in one version-checked write. An order
+   * changed by someone else in the meantime is read again and gets its requests applied again, like
+   * {@link #tryRun} does.
+   */
+  public List<OrderApprovalResult> runAll(List<? extends OrderApprovalRequest> requests) {
+    final Map<Integer, Order> orders = ordersFor(requests);
+    final OrderApprovalResult[] results = new OrderApprovalResult[requests.size()];
+    final Map<Integer, List<Integer>> positionsByOrder = new LinkedHashMap<>();
+    for (int position = 0; position < requests.size(); position++) {
+      final int orderId = requests.get(position).getOrderId();
+      if (orders.get(orderId) == null) {
+        results[position] = OrderApprovalResult.failed(orderId, new UnknownOrderException());
+      } else {
+        positionsByOrder.computeIfAbsent(orderId, id -> new ArrayList<>()).add(position);
+      }
+    }
+    final List<Order> changedOrders = new ArrayList<>(positionsByOrder.size());
+    for (Map.Entry<Integer, List<Integer>> positions : positionsByOrder.entrySet()) {
+      final Order order = orders.get(positions.getKey());
+      if (applyAll(requests, positions.getValue(), order, results).isApplied()) {
+        changedOrders.add(order);
+      }
+    }
+    for (int orderId : orderRepository.compareAndSaveAll(changedOrders)) {
+      applyAgain(requests, positionsByOrder.get(orderId), orderId, results);
+    }
+    return Arrays.asList(results);
+  }
+
+  /**
+   * Applies the requests at {@code positions} to {@code order}, records their results, and returns APPLIED
+   * if any of them changed the order, or else the last failure.
+   */
+  private static TransitionOutcome applyAll(List<? extends OrderApprovalRequest> requests, List<Integer> positions,
+      Order order, OrderApprovalResult[] results) {
+    TransitionOutcome combined = null;
+    for (int position : positions) {
+      final TransitionOutcome outcome = requests.get(position).tryUpdateOrderStatus(order);
+      results[position] = outcome.isApplied()
+          ? OrderApprovalResult.succeeded(order.getId())
+          : OrderApprovalResult.failed(order.getId(), outcome.failure());
+      if (combined == null || !combined.isApplied()) {
+        combined = outcome;
+      }
+    }
+    return combined;
+  }
+
+  private void applyAgain(List<? extends OrderApprovalRequest> requests, List<Integer> positions, int orderId,
+      OrderApprovalResult[] results) {
+    final Order current = orderRepository.orderWith(orderId);
+    if (!applyAll(requests, positions, current, results).isApplied()) {
+      return;
+    }
+    try {
+      retryPolicy.save(orderRepository, current, order -> applyAll(requests, positions, order, results));
+    } catch (ConcurrentOrderUpdateException e) {
+      for (int position : positions) {
+        results[position] = OrderApprovalResult.failed(orderId, e);
+      }
+    }
+  }
+
+  private Map<Integer, Order> ordersFor(List<? extends OrderApprovalRequest> requests) {
+    final int[] orderIds = requests.stream().mapToInt(OrderApprovalRequest::getOrderId).distinct().toArray();
+    final List<Order> found = orderRepository.ordersWith(orderIds);
+    final Map<Integer, Order> orders = new HashMap<>(orderIds.length * 4 / 3 + 1);
+    for (int i = 0; i < orderIds.length; i++) {
+      orders.put(orderIds[i], found.get(i));
+    }
+    return orders;
   }
 }
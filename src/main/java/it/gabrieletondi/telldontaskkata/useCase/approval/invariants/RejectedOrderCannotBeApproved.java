@@ -1,4 +1,8 @@
 package it.gabrieletondi.telldontaskkata.useCase.approval.invariants;
 
 public class RejectedOrderCannotBeApproved extends RuntimeException {
+
+  public RejectedOrderCannotBeApproved() {
+    super(null, null, false, false);
+  }
 }
@@ -2,4 +2,7 @@ package it.gabrieletondi.telldontaskkata.useCase.approval.invariants;
 
 public class ShippedOrdersCannotBeApproved extends RuntimeException {
 
+  public ShippedOrdersCannotBeApproved() {
+    super(null, null, false, false);
+  }
 }
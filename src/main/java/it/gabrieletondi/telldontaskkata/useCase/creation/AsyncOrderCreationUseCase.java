@@ -0,0 +1,30 @@
+package it.gabrieletondi.telldontaskkata.useCase.creation;
+
+import it.gabrieletondi.telldontaskkata.repository.AsyncOrderRepository;
+import it.gabrieletondi.telldontaskkata.repository.AsyncProductCatalog;
+import it.gabrieletondi.telldontaskkata.repository.OrderIdGenerator;
+import it.gabrieletondi.telldontaskkata.repository.SequentialOrderIdGenerator;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncOrderCreationUseCase {
+
+  private final AsyncOrderRepository orderRepository;
+  private final AsyncProductCatalog productCatalog;
+  private final OrderIdGenerator orderIds;
+
+  public AsyncOrderCreationUseCase(AsyncOrderRepository orderRepository, AsyncProductCatalog productCatalog) {
+    this(orderRepository, productCatalog, new SequentialOrderIdGenerator());
+  }
+
+  public AsyncOrderCreationUseCase(AsyncOrderRepository orderRepository, AsyncProductCatalog productCatalog,
+      OrderIdGenerator orderIds) {
+    this.orderRepository = orderRepository;
+    this.productCatalog = productCatalog;
+    this.orderIds = orderIds;
+  }
+
+  public CompletableFuture<Void> run(SellItemsRequest request) {
+    return productCatalog.productsWith(request.productNames())
+        .thenCompose(products -> orderRepository.save(request.orderFor(orderIds.nextId(), products)));
+  }
+}
@@ -0,0 +1,128 @@
+package it.gabrieletondi.telldontaskkata.useCase.creation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads a JSON object whose values are all strings, numbers, booleans or null, which is all an
+ * {@link ImportFormat#NDJSON} line holds. Values are returned as their text: strings unescaped, the others
+ * as written.
+ */
+final class FlatJson {
+
+  private final String json;
+  private int at;
+
+  private FlatJson(String json) {
+    this.json = json;
+  }
+
+  static Map<String, String> parse(String json) {
+    return new FlatJson(json).object();
+  }
+
+  private Map<String, String> object() {
+    final Map<String, String> fields = new HashMap<>();
+    expect('{');
+    if (peek() == '}') {
+      at++;
+    } else {
+      do {
+        final String name = string();
+        expect(':');
+        fields.put(name, value());
+      } while (next() == ',');
+      at--;
+      expect('}');
+    }
+    if (peek() != 0) {
+      throw malformed();
+    }
+    return fields;
+  }
+
+  private String value() {
+    if (peek() == '"') {
+      return string();
+    }
+    final int start = at;
+    while (at < json.length() && "-+.eE0123456789truefalsn".indexOf(json.charAt(at)) >= 0) {
+      at++;
+    }
+    if (start == at) {
+      throw malformed();
+    }
+    return json.substring(start, at);
+  }
+
+  private String string() {
+    expect('"');
+    final StringBuilder value = new StringBuilder();
+    while (true) {
+      if (at >= json.length()) {
+        throw malformed();
+      }
+      final char c = json.charAt(at++);
+      if (c == '"') {
+        return value.toString();
+      }
+      if (c != '\\') {
+        value.append(c);
+      } else if (at >= json.length()) {
+        throw malformed();
+      } else {
+        value.append(escaped(json.charAt(at++)));
+      }
+    }
+  }
+
+  private char escaped(char c) {
+    switch (c) {
+      case 'b':
+        return '\b';
+      case 'f':
+        return '\f';
+      case 'n':
+        return '\n';
+      case 'r':
+        return '\r';
+      case 't':
+        return '\t';
+      case 'u':
+        if (at + 4 > json.length()) {
+          throw malformed();
+        }
+        at += 4;
+        return (char) Integer.parseInt(json.substring(at - 4, at), 16);
+      case '"':
+      case '\\':
+      case '/':
+        return c;
+      default:
+        throw malformed();
+    }
+  }
+
+  private void expect(char expected) {
+    if (next() != expected) {
+      throw malformed();
+    }
+  }
+
+  private char next() {
+    final char c = peek();
+    at++;
+    return c;
+  }
+
+  private char peek() {
+    while (at < json.length() && Character.isWhitespace(json.charAt(at))) {
+      at++;
+    }
+    return at < json.length() ? json.charAt(at) : 0;
+  }
+
+  private IllegalArgumentException malformed() {
+    return new IllegalArgumentException("malformed JSON at " + at + ": " + json);
+  }
+}
@@ -0,0 +1,66 @@
+package it.gabrieletondi.telldontaskkata.useCase.creation;
+
+import java.util.Map;
+
+/**
+ * The line formats {@link OrderIngestionPipeline} reads. Both hold one line item per line.
+ */
+public enum ImportFormat {
+
+  /**
+   * {@code order,productName,quantity}, without quoting.
+   */
+  CSV {
+    @Override
+    LineItem parse(String line) {
+      final String[] fields = line.split(",", -1);
+      if (fields.length != 3) {
+        throw new IllegalArgumentException("expected 3 fields: " + line);
+      }
+      return new LineItem(fields[0].trim(), fields[1].trim(), Integer.parseInt(fields[2].trim()));
+    }
+
+    @Override
+    String referenceOf(String line) {
+      final int comma = line.indexOf(',');
+      final String reference = (comma < 0 ? line : line.substring(0, comma)).trim();
+      return reference.isEmpty() ? null : reference;
+    }
+  },
+
+  /**
+   * {@code {"order": "A-1", "productName": "salad", "quantity": 2}}, one flat object per line. The order
+   * reference may be a string or a number.
+   */
+  NDJSON {
+    @Override
+    LineItem parse(String line) {
+      final Map<String, String> fields = FlatJson.parse(line);
+      final String quantity = fields.get("quantity");
+      if (!fields.containsKey("order") || !fields.containsKey("productName") || quantity == null) {
+        throw new IllegalArgumentException("expected order, productName and quantity: " + line);
+      }
+      return new LineItem(fields.get("order"), fields.get("productName"), Integer.parseInt(quantity));
+    }
+
+    @Override
+    String referenceOf(String line) {
+      try {
+        final String reference = FlatJson.parse(line).get("order");
+        return reference == null || reference.isEmpty() ? null : reference;
+      } catch (IllegalArgumentException malformed) {
+        return null;
+      }
+    }
+  };
+
+  /**
+   * Throws IllegalArgumentException, or its NumberFormatException subclass, for a malformed line.
+   */
+  abstract LineItem parse(String line);
+
+  /**
+   * Returns the order reference of a line even if the rest of it is malformed, or null if it has none.
+   */
+  abstract String referenceOf(String line);
+}
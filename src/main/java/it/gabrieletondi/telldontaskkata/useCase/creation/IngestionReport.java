@@ -0,0 +1,31 @@
+package it.gabrieletondi.telldontaskkata.useCase.creation;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+@ToString
+@EqualsAndHashCode
+public class IngestionReport {
+
+  private final int createdOrders;
+  private final int unknownProductRejects;
+  private final int malformedRejects;
+
+  IngestionReport(int createdOrders, int unknownProductRejects, int malformedRejects) {
+    this.createdOrders = createdOrders;
+    this.unknownProductRejects = unknownProductRejects;
+    this.malformedRejects = malformedRejects;
+  }
+
+  public int getCreatedOrders() {
+    return createdOrders;
+  }
+
+  public int getUnknownProductRejects() {
+    return unknownProductRejects;
+  }
+
+  public int getMalformedRejects() {
+    return malformedRejects;
+  }
+}
@@ -0,0 +1,19 @@
+package it.gabrieletondi.telldontaskkata.useCase.creation;
+
+/**
+ * One parsed line of an import: {@code quantity} of {@code productName} for the order the source calls
+ * {@code orderReference}.
+ */
+final class LineItem {
+
+  final String orderReference;
+  final SellItemRequest request;
+
+  LineItem(String orderReference, String productName, int quantity) {
+    if (orderReference.isEmpty() || productName.isEmpty()) {
+      throw new IllegalArgumentException("order reference and product name are required");
+    }
+    this.orderReference = orderReference;
+    this.request = new SellItemRequest(productName, quantity);
+  }
+}
@@ -2,22 +2,31 @@ package it.gabrieletondi.telldontaskkata.useCase.creation;
 
 import it.gabrieletondi.telldontaskkata.domain.Order;
 import it.gabrieletondi.telldontaskkata.domain.Products;
+import it.gabrieletondi.telldontaskkata.repository.OrderIdGenerator;
 import it.gabrieletondi.telldontaskkata.repository.OrderRepository;
 import it.gabrieletondi.telldontaskkata.repository.ProductCatalog;
+import it.gabrieletondi.telldontaskkata.repository.SequentialOrderIdGenerator;
 
 public class OrderCreationUseCase {
 
   private final OrderRepository orderRepository;
   private final ProductCatalog productCatalog;
+  private final OrderIdGenerator orderIds;
 
   public OrderCreationUseCase(OrderRepository orderRepository, ProductCatalog productCatalog) {
+    this(orderRepository, productCatalog, new SequentialOrderIdGenerator());
+  }
+
+  public OrderCreationUseCase(OrderRepository orderRepository, ProductCatalog productCatalog,
+      OrderIdGenerator orderIds) {
     this.orderRepository = orderRepository;
     this.productCatalog = productCatalog;
+    this.orderIds = orderIds;
   }
 
   public void run(SellItemsRequest request) {
     final Products products = productCatalog.productsWith(request.productNames());
-    Order order = request.orderFor(products);
+    Order order = request.orderFor(orderIds.nextId(), products);
     orderRepository.save(order);
   }
 }
@@ -0,0 +1,270 @@
+package it.gabrieletondi.telldontaskkata.useCase.creation;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.Products;
+import it.gabrieletondi.telldontaskkata.repository.OrderIdGenerator;
+import it.gabrieletondi.telldontaskkata.repository.OrderRepository;
+import it.gabrieletondi.telldontaskkata.repository.ProductCatalog;
+import it.gabrieletondi.telldontaskkata.repository.SequentialOrderIdGenerator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates orders from a stream of line items. Consecutive lines with the same order reference make one
+ * order. The calling thread parses the lines into batches of {@code batchSize} orders and hands them to an
+ * importer on {@code executor}, which resolves every product of a batch with one catalog call, creates the
+ * orders like {@link OrderCreationUseCase} and saves them with one {@link OrderRepository#saveAll}. At most
+ * {@code batchesInFlight} batches wait for the importer; past that, parsing blocks.
+ * <p>
+ * The lines of an order that names an unknown product, or that has a line that cannot be parsed, are
+ * written unchanged to the rejects, so they can be fixed and imported again. A line without even an order
+ * reference is rejected on its own.
+ */
+public class OrderIngestionPipeline {
+
+  private static final Batch END = new Batch();
+
+  private final OrderRepository orderRepository;
+  private final ProductCatalog productCatalog;
+  private final OrderIdGenerator orderIds;
+  private final Executor executor;
+  private final int batchSize;
+  private final int batchesInFlight;
+
+  public OrderIngestionPipeline(OrderRepository orderRepository, ProductCatalog productCatalog, Executor executor) {
+    this(orderRepository, productCatalog, new SequentialOrderIdGenerator(), executor, 256, 4);
+  }
+
+  public OrderIngestionPipeline(OrderRepository orderRepository, ProductCatalog productCatalog,
+      OrderIdGenerator orderIds, Executor executor, int batchSize, int batchesInFlight) {
+    if (batchSize <= 0 || batchesInFlight <= 0) {
+      throw new IllegalArgumentException("batch size and batches in flight must be positive");
+    }
+    this.orderRepository = orderRepository;
+    this.productCatalog = productCatalog;
+    this.orderIds = orderIds;
+    this.executor = executor;
+    this.batchSize = batchSize;
+    this.batchesInFlight = batchesInFlight;
+  }
+
+  /**
+   * Imports every order of {@code source} and returns once they are all saved or rejected. Neither
+   * {@code source} nor {@code rejects} is closed.
+   */
+  public IngestionReport ingest(Reader source, ImportFormat format, Writer rejects) {
+    final BlockingQueue<Batch> batches = new ArrayBlockingQueue<>(batchesInFlight);
+    final Importer importer = new Importer(batches, rejects);
+    final CompletableFuture<IngestionReport> report = CompletableFuture.supplyAsync(importer::run, executor);
+    try {
+      read(new BufferedReader(source), format, batches, report);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      handOver(END, batches, report);
+    }
+    try {
+      return report.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private void read(BufferedReader lines, ImportFormat format, BlockingQueue<Batch> batches,
+      CompletableFuture<?> importing) throws IOException {
+    Batch batch = new Batch();
+    PendingOrder order = null;
+    String line;
+    while ((line = lines.readLine()) != null) {
+      if (line.trim().isEmpty()) {
+        continue;
+      }
+      final String reference = format.referenceOf(line);
+      LineItem item;
+      try {
+        item = format.parse(line);
+      } catch (IllegalArgumentException malformed) {
+        item = null;
+      }
+      if (order != null && order.accepts(reference)) {
+        order.add(item, line);
+        continue;
+      }
+      if (order != null) {
+        batch.orders.add(order);
+        if (batch.orders.size() == batchSize) {
+          if (!handOver(batch, batches, importing)) {
+            return;
+          }
+          batch = new Batch();
+        }
+      }
+      order = new PendingOrder(reference);
+      order.add(item, line);
+    }
+    if (order != null) {
+      batch.orders.add(order);
+    }
+    if (!batch.orders.isEmpty()) {
+      handOver(batch, batches, importing);
+    }
+  }
+
+  /**
+   * Waits for room in {@code batches}, unless the importer stopped, and reports whether the batch was
+   * handed over.
+   */
+  private static boolean handOver(Batch batch, BlockingQueue<Batch> batches, CompletableFuture<?> importing) {
+    try {
+      while (!batches.offer(batch, 10, TimeUnit.MILLISECONDS)) {
+        if (importing.isDone()) {
+          return false;
+        }
+      }
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted while ingesting orders", e);
+    }
+  }
+
+  private final class Importer {
+
+    private final BlockingQueue<Batch> batches;
+    private final Writer rejects;
+    private int createdOrders;
+    private int unknownProductRejects;
+    private int malformedRejects;
+
+    Importer(BlockingQueue<Batch> batches, Writer rejects) {
+      this.batches = batches;
+      this.rejects = rejects;
+    }
+
+    IngestionReport run() {
+      try {
+        for (Batch batch = batches.take(); batch != END; batch = batches.take()) {
+          importAll(batch.orders);
+        }
+        rejects.flush();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("interrupted while ingesting orders", e);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return new IngestionReport(createdOrders, unknownProductRejects, malformedRejects);
+    }
+
+    /**
+     * Resolves the products of {@code pending} in one catalog call, and in a second one with only the
+     * known names when the catalog names unknown ones. Orders are looked up one by one only when the
+     * catalog does not say which names it is missing.
+     */
+    private void importAll(List<PendingOrder> pending) throws IOException {
+      final List<String> names = productNamesOf(pending);
+      Set<String> unknownNames = Collections.emptySet();
+      Products batchProducts;
+      try {
+        batchProducts = productCatalog.productsWith(names);
+      } catch (UnknownProductException unknown) {
+        unknownNames = new HashSet<>(unknown.getProductNames());
+        names.removeAll(unknownNames);
+        batchProducts = unknownNames.isEmpty() ? null : productsOrNull(names);
+      }
+      final List<Order> orders = new ArrayList<>(pending.size());
+      for (PendingOrder order : pending) {
+        if (order.malformed) {
+          malformedRejects++;
+          reject(order);
+          continue;
+        }
+        final SellItemsRequest request = new SellItemsRequest(order.items);
+        final List<String> productNames = request.productNames();
+        final Products products = !Collections.disjoint(productNames, unknownNames) ? null
+            : batchProducts != null ? batchProducts : productsOrNull(productNames);
+        if (products == null) {
+          unknownProductRejects++;
+          reject(order);
+          continue;
+        }
+        orders.add(request.orderFor(orderIds.nextId(), products));
+      }
+      orderRepository.saveAll(orders);
+      createdOrders += orders.size();
+    }
+
+    private List<String> productNamesOf(List<PendingOrder> pending) {
+      final Set<String> names = new LinkedHashSet<>();
+      for (PendingOrder order : pending) {
+        if (!order.malformed) {
+          order.items.forEach(item -> names.add(item.getProductName()));
+        }
+      }
+      return new ArrayList<>(names);
+    }
+
+    private Products productsOrNull(List<String> productNames) {
+      try {
+        return productCatalog.productsWith(productNames);
+      } catch (UnknownProductException unknown) {
+        return null;
+      }
+    }
+
+    private void reject(PendingOrder order) throws IOException {
+      for (String line : order.lines) {
+        rejects.write(line);
+        rejects.write('\n');
+      }
+    }
+  }
+
+  private static final class PendingOrder {
+
+    private final String reference;
+    private final List<SellItemRequest> items = new ArrayList<>();
+    private final List<String> lines = new ArrayList<>();
+    private boolean malformed;
+
+    PendingOrder(String reference) {
+      this.reference = reference;
+    }
+
+    boolean accepts(String lineReference) {
+      return reference != null && reference.equals(lineReference);
+    }
+
+    void add(LineItem item, String line) {
+      if (item == null) {
+        malformed = true;
+      } else {
+        items.add(item.request);
+      }
+      lines.add(line);
+    }
+  }
+
+  private static final class Batch {
+
+    private final List<PendingOrder> orders = new ArrayList<>();
+  }
+}
@@ -1,30 +1,48 @@
 package it.gabrieletondi.telldontaskkata.useCase.creation;
 
 import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.OrderLine;
 import it.gabrieletondi.telldontaskkata.domain.Product;
 import it.gabrieletondi.telldontaskkata.domain.Products;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * The items of a new order. Lines of the same product are merged into one item with their total quantity,
+ * and each product name is looked up once; see {@link OrderLine#merged} for the lines that stay apart.
+ * Requests created {@link #withEveryLine} keep an item and a lookup per line instead.
+ */
 public class SellItemsRequest {
 
   private List<SellItemRequest> requests;
+  private boolean mergingDuplicates;
 
   public SellItemsRequest(List<SellItemRequest> requests) {
+    this(requests, true);
+  }
+
+  private SellItemsRequest(List<SellItemRequest> requests, boolean mergingDuplicates) {
     this.requests = requests;
+    this.mergingDuplicates = mergingDuplicates;
+  }
+
+  public static SellItemsRequest withEveryLine(List<SellItemRequest> requests) {
+    return new SellItemsRequest(requests, false);
   }
 
-  Order orderFor(Products products) {
-    Order order = Order.withoutOrderItems();
+  Order orderFor(int orderId, Products products) {
+    final List<OrderLine> lines = new ArrayList<>(requests.size());
     for (SellItemRequest request : requests) {
       Product product = products.oneWithThe(request.getProductName());
-      int quantity = request.getQuantity();
-      order.add(product, quantity);
+      lines.add(new OrderLine(product, request.getQuantity()));
     }
-    return order;
+    return Order.withLines(orderId, mergingDuplicates ? OrderLine.merged(lines) : lines);
   }
 
   List<String> productNames() {
-    return requests.stream().map(SellItemRequest::getProductName).collect(Collectors.toList());
+    final Stream<String> names = requests.stream().map(SellItemRequest::getProductName);
+    return (mergingDuplicates ? names.distinct() : names).collect(Collectors.toList());
   }
 }
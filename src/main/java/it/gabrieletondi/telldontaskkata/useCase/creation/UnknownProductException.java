@@ -1,4 +1,25 @@
 package it.gabrieletondi.telldontaskkata.useCase.creation;
 
+import static java.util.Collections.emptyList;
+
+import java.util.List;
+
 public class UnknownProductException extends RuntimeException {
+
+  private final List<String> productNames;
+
+  public UnknownProductException() {
+    this(emptyList());
+  }
+
+  public UnknownProductException(List<String> productNames) {
+    this.productNames = productNames;
+  }
+
+  /**
+   * Returns the names that were not found, or an empty list when the catalog did not tell.
+   */
+  public List<String> getProductNames() {
+    return productNames;
+  }
 }
@@ -0,0 +1,97 @@
+package it.gabrieletondi.telldontaskkata.useCase.dispatch;
+
+import it.gabrieletondi.telldontaskkata.domain.TransitionOutcome;
+import it.gabrieletondi.telldontaskkata.useCase.OrderApprovalRequest;
+import it.gabrieletondi.telldontaskkata.useCase.approval.OrderApprovalUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.creation.OrderCreationUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.creation.SellItemsRequest;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentRequest;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentUseCase;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs each request on its own task of an executor, virtual threads by default. Requests for the same order
+ * id never run concurrently: they take a {@link ReentrantLock} striped by order id, which, unlike
+ * {@code synchronized}, does not pin a blocked virtual thread to its carrier.
+ */
+public class OrderDispatcher implements AutoCloseable {
+
+  private static final int DEFAULT_STRIPES = 1024;
+
+  private final OrderCreationUseCase creation;
+  private final OrderApprovalUseCase approval;
+  private final OrderShipmentUseCase shipment;
+  private final ExecutorService executor;
+  private final ReentrantLock[] orderLocks;
+
+  public OrderDispatcher(OrderCreationUseCase creation, OrderApprovalUseCase approval,
+      OrderShipmentUseCase shipment, ExecutorService executor) {
+    this(creation, approval, shipment, executor, DEFAULT_STRIPES);
+  }
+
+  public OrderDispatcher(OrderCreationUseCase creation, OrderApprovalUseCase approval,
+      OrderShipmentUseCase shipment, ExecutorService executor, int stripes) {
+    if (Integer.bitCount(stripes) != 1) {
+      throw new IllegalArgumentException("stripes must be a power of two: " + stripes);
+    }
+    this.creation = creation;
+    this.approval = approval;
+    this.shipment = shipment;
+    this.executor = executor;
+    this.orderLocks = new ReentrantLock[stripes];
+    for (int i = 0; i < stripes; i++) {
+      orderLocks[i] = new ReentrantLock();
+    }
+  }
+
+  public static OrderDispatcher onVirtualThreads(OrderCreationUseCase creation, OrderApprovalUseCase approval,
+      OrderShipmentUseCase shipment) {
+    return new OrderDispatcher(creation, approval, shipment, VirtualThreads.newThreadPerTaskExecutor());
+  }
+
+  public static boolean virtualThreadsAreAvailable() {
+    return VirtualThreads.areAvailable();
+  }
+
+  public CompletableFuture<Void> submit(SellItemsRequest request) {
+    return CompletableFuture.runAsync(() -> creation.run(request), executor);
+  }
+
+  public CompletableFuture<TransitionOutcome> submit(OrderApprovalRequest request) {
+    return dispatch(request.getOrderId(), () -> approval.tryRun(request));
+  }
+
+  public CompletableFuture<TransitionOutcome> submit(OrderShipmentRequest request) {
+    return dispatch(request.getOrderId(), () -> shipment.tryRun(request));
+  }
+
+  private CompletableFuture<TransitionOutcome> dispatch(int orderId, Supplier<TransitionOutcome> request) {
+    return CompletableFuture.supplyAsync(() -> {
+      final ReentrantLock lock = lockFor(orderId);
+      lock.lock();
+      try {
+        return request.get();
+      } finally {
+        lock.unlock();
+      }
+    }, executor);
+  }
+
+  private ReentrantLock lockFor(int orderId) {
+    final int h = orderId * 0x9E3779B9;
+    return orderLocks[(h ^ h >>> 16) & orderLocks.length - 1];
+  }
+
+  /**
+   * Stops accepting requests and waits for the submitted ones to finish.
+   */
+  @Override
+  public void close() throws InterruptedException {
+    executor.shutdown();
+    executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+  }
+}
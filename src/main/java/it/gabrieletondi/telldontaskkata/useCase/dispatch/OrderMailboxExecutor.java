@@ -0,0 +1,161 @@
+package it.gabrieletondi.telldontaskkata.useCase.dispatch;
+
+import it.gabrieletondi.telldontaskkata.domain.TransitionOutcome;
+import it.gabrieletondi.telldontaskkata.useCase.OrderApprovalRequest;
+import it.gabrieletondi.telldontaskkata.useCase.approval.OrderApprovalUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentRequest;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentUseCase;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Queues each request in a mailbox chosen by its order id. A mailbox is drained by at most one task of the
+ * executor at a time, so requests for the same order run one after the other in submission order, while
+ * mailboxes of different orders drain in parallel. If the executor rejects a mailbox's task, the requests
+ * waiting in that mailbox fail with the rejection.
+ */
+public class OrderMailboxExecutor {
+
+  private static final int DEFAULT_MAILBOXES = 256;
+  private static final int DEFAULT_MAILBOX_CAPACITY = 1024;
+  private static final int DRAIN_BATCH = 64;
+
+  private final OrderApprovalUseCase approval;
+  private final OrderShipmentUseCase shipment;
+  private final Mailbox[] mailboxes;
+
+  public OrderMailboxExecutor(OrderApprovalUseCase approval, OrderShipmentUseCase shipment, Executor executor) {
+    this(approval, shipment, executor, DEFAULT_MAILBOXES, DEFAULT_MAILBOX_CAPACITY);
+  }
+
+  public OrderMailboxExecutor(OrderApprovalUseCase approval, OrderShipmentUseCase shipment, Executor executor,
+      int mailboxes, int mailboxCapacity) {
+    if (Integer.bitCount(mailboxes) != 1) {
+      throw new IllegalArgumentException("mailboxes must be a power of two: " + mailboxes);
+    }
+    if (mailboxCapacity <= 0) {
+      throw new IllegalArgumentException("mailbox capacity must be positive: " + mailboxCapacity);
+    }
+    this.approval = approval;
+    this.shipment = shipment;
+    this.mailboxes = new Mailbox[mailboxes];
+    for (int i = 0; i < mailboxes; i++) {
+      this.mailboxes[i] = new Mailbox(executor, mailboxCapacity);
+    }
+  }
+
+  /**
+   * @throws RejectedExecutionException when the mailbox of the order already holds as many requests as its
+   *     capacity
+   */
+  public CompletableFuture<TransitionOutcome> submit(OrderApprovalRequest request) {
+    return post(request.getOrderId(), () -> approval.tryRun(request));
+  }
+
+  /**
+   * @throws RejectedExecutionException when the mailbox of the order already holds as many requests as its
+   *     capacity
+   */
+  public CompletableFuture<TransitionOutcome> submit(OrderShipmentRequest request) {
+    return post(request.getOrderId(), () -> shipment.tryRun(request));
+  }
+
+  private CompletableFuture<TransitionOutcome> post(int orderId, Supplier<TransitionOutcome> transition) {
+    final Request request = new Request(transition);
+    mailboxFor(orderId).post(request);
+    return request.outcome;
+  }
+
+  private Mailbox mailboxFor(int orderId) {
+    final int h = orderId * 0x9E3779B9;
+    return mailboxes[(h ^ h >>> 16) & mailboxes.length - 1];
+  }
+
+  private static final class Mailbox implements Runnable {
+
+    private final Executor executor;
+    private final int capacity;
+    private final ConcurrentLinkedQueue<Request> requests = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private Mailbox(Executor executor, int capacity) {
+      this.executor = executor;
+      this.capacity = capacity;
+    }
+
+    private void post(Request request) {
+      if (size.incrementAndGet() > capacity) {
+        size.decrementAndGet();
+        throw new RejectedExecutionException("mailbox is full");
+      }
+      requests.offer(request);
+      schedule();
+    }
+
+    private void schedule() {
+      if (scheduled.compareAndSet(false, true)) {
+        try {
+          executor.execute(this);
+        } catch (RejectedExecutionException rejected) {
+          scheduled.set(false);
+          failWaitingRequests(rejected);
+        }
+      }
+    }
+
+    private void failWaitingRequests(RejectedExecutionException rejected) {
+      Request request;
+      while ((request = requests.poll()) != null) {
+        size.decrementAndGet();
+        request.outcome.completeExceptionally(rejected);
+      }
+    }
+
+    /**
+     * Runs up to {@value #DRAIN_BATCH} requests and reschedules itself if more are waiting, even when a
+     * request throws an {@link Error} out of here.
+     */
+    @Override
+    public void run() {
+      try {
+        Request request;
+        for (int drained = 0; drained < DRAIN_BATCH && (request = requests.poll()) != null; drained++) {
+          size.decrementAndGet();
+          request.run();
+        }
+      } finally {
+        scheduled.set(false);
+        if (!requests.isEmpty()) {
+          schedule();
+        }
+      }
+    }
+  }
+
+  private static final class Request {
+
+    private final Supplier<TransitionOutcome> transition;
+    private final CompletableFuture<TransitionOutcome> outcome = new CompletableFuture<>();
+
+    private Request(Supplier<TransitionOutcome> transition) {
+      this.transition = transition;
+    }
+
+    private void run() {
+      try {
+        outcome.complete(transition.get());
+      } catch (Throwable e) {
+        outcome.completeExceptionally(e);
+        if (e instanceof Error) {
+          throw (Error) e;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package it.gabrieletondi.telldontaskkata.useCase.dispatch;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+final class VirtualThreads {
+
+  private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = virtualThreadPerTaskExecutorFactory();
+
+  private VirtualThreads() {
+  }
+
+  static boolean areAvailable() {
+    return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+  }
+
+  /**
+   * One new virtual thread per task where the running JDK has them, one cached platform thread per
+   * concurrent task otherwise.
+   */
+  static ExecutorService newThreadPerTaskExecutor() {
+    if (!areAvailable()) {
+      return Executors.newCachedThreadPool();
+    }
+    try {
+      return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newCachedThreadPool();
+    }
+  }
+
+  private static Method virtualThreadPerTaskExecutorFactory() {
+    try {
+      return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+}
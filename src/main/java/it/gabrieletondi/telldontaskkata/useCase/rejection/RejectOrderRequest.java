@@ -1,6 +1,7 @@
 package it.gabrieletondi.telldontaskkata.useCase.rejection;
 
 import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.TransitionOutcome;
 import it.gabrieletondi.telldontaskkata.useCase.OrderApprovalRequest;
 
 public class RejectOrderRequest extends OrderApprovalRequest {
@@ -14,7 +15,7 @@ public class RejectOrderRequest extends OrderApprovalRequest {
   }
 
   @Override
-  public void updateOrderStatus(Order order) {
-    order.reject();
+  public TransitionOutcome tryUpdateOrderStatus(Order order) {
+    return order.tryReject();
   }
 }
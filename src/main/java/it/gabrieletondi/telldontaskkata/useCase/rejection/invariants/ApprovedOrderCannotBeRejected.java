@@ -1,4 +1,8 @@
 package it.gabrieletondi.telldontaskkata.useCase.rejection.invariants;
 
 public class ApprovedOrderCannotBeRejected extends RuntimeException {
+
+  public ApprovedOrderCannotBeRejected() {
+    super(null, null, false, false);
+  }
 }
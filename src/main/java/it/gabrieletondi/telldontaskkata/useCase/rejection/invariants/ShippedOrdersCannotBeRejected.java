@@ -1,4 +1,8 @@
 package it.gabrieletondi.telldontaskkata.useCase.rejection.invariants;
 
 public class ShippedOrdersCannotBeRejected extends RuntimeException {
+
+  public ShippedOrdersCannotBeRejected() {
+    super(null, null, false, false);
+  }
 }
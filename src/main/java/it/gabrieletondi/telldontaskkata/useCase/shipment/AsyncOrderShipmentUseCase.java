@@ -0,0 +1,51 @@
+package it.gabrieletondi.telldontaskkata.useCase.shipment;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import it.gabrieletondi.telldontaskkata.domain.TransitionOutcome;
+import it.gabrieletondi.telldontaskkata.repository.AsyncOrderRepository;
+import it.gabrieletondi.telldontaskkata.service.AsyncShipmentService;
+import it.gabrieletondi.telldontaskkata.useCase.RetryPolicy;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncOrderShipmentUseCase {
+
+  private final AsyncOrderRepository orderRepository;
+  private final AsyncShipmentService shipmentService;
+  private final RetryPolicy retryPolicy;
+
+  public AsyncOrderShipmentUseCase(AsyncOrderRepository orderRepository, AsyncShipmentService shipmentService) {
+    this(orderRepository, shipmentService, RetryPolicy.defaultPolicy());
+  }
+
+  public AsyncOrderShipmentUseCase(AsyncOrderRepository orderRepository, AsyncShipmentService shipmentService,
+      RetryPolicy retryPolicy) {
+    this.orderRepository = orderRepository;
+    this.shipmentService = shipmentService;
+    this.retryPolicy = retryPolicy;
+  }
+
+  public CompletableFuture<Void> run(OrderShipmentRequest request) {
+    return tryRun(request).thenAccept(TransitionOutcome::orThrow);
+  }
+
+  public CompletableFuture<TransitionOutcome> tryRun(OrderShipmentRequest request) {
+    return orderRepository.orderWith(request.getOrderId()).thenCompose(order -> {
+      final ShipmentClaim claim = new ShipmentClaim();
+      final TransitionOutcome outcome = claim.apply(order);
+      if (!outcome.isApplied()) {
+        return completedFuture(outcome);
+      }
+      return retryPolicy.saveAsync(orderRepository, order, claim).thenCompose(claimed -> {
+        if (!claimed.isApplied()) {
+          return completedFuture(claimed);
+        }
+        return shipmentService.ship(claim.orderToShip())
+            .handle((shipped, failure) -> failure)
+            .thenCompose(failure -> failure == null
+                ? completedFuture(TransitionOutcome.APPLIED)
+                : claim.<TransitionOutcome>release(orderRepository, failure));
+      });
+    });
+  }
+}
@@ -0,0 +1,158 @@
+package it.gabrieletondi.telldontaskkata.useCase.shipment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gathers shipment requests into manifests for {@link OrderShipmentUseCase#runAll}. A manifest is shipped
+ * by the thread submitting its {@code maximumBatchSize}-th request, or by {@code scheduler} once its oldest
+ * request has waited {@code maximumDelay}, whichever comes first. A request for an order that is in a manifest
+ * being shipped waits for that manifest, and joins the next one.
+ */
+public class BatchingShipmentPipeline implements AutoCloseable {
+
+  private final OrderShipmentUseCase shipment;
+  private final int maximumBatchSize;
+  private final long maximumDelayNanos;
+  private final ScheduledExecutorService scheduler;
+  private Batch pending = new Batch();
+  private Batch waiting = new Batch();
+  private final Set<Integer> inFlight = new HashSet<>();
+  private ScheduledFuture<?> scheduledFlush;
+  private boolean closed;
+
+  public BatchingShipmentPipeline(OrderShipmentUseCase shipment, int maximumBatchSize, Duration maximumDelay,
+      ScheduledExecutorService scheduler) {
+    if (maximumBatchSize <= 0) {
+      throw new IllegalArgumentException("maximum batch size must be positive: " + maximumBatchSize);
+    }
+    this.shipment = shipment;
+    this.maximumBatchSize = maximumBatchSize;
+    this.maximumDelayNanos = maximumDelay.toNanos();
+    this.scheduler = scheduler;
+  }
+
+  public CompletableFuture<OrderShipmentResult> submit(OrderShipmentRequest request) {
+    final CompletableFuture<OrderShipmentResult> result = new CompletableFuture<>();
+    Batch full = null;
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("pipeline is closed");
+      }
+      full = enqueue(request, result);
+    }
+    if (full != null) {
+      ship(full);
+    }
+    return result;
+  }
+
+  /**
+   * Adds the request to the pending manifest, or to the waiting ones if its order is being shipped, and
+   * returns the pending manifest if it is now full, or if {@code scheduler} refuses to ship it later.
+   */
+  private Batch enqueue(OrderShipmentRequest request, CompletableFuture<OrderShipmentResult> result) {
+    if (inFlight.contains(request.getOrderId())) {
+      waiting.requests.add(request);
+      waiting.results.add(result);
+      return null;
+    }
+    pending.requests.add(request);
+    pending.results.add(result);
+    if (pending.requests.size() == maximumBatchSize) {
+      return detachPending();
+    }
+    if (pending.requests.size() == 1) {
+      try {
+        scheduledFlush = scheduler.schedule(this::flush, maximumDelayNanos, TimeUnit.NANOSECONDS);
+      } catch (RejectedExecutionException rejected) {
+        return detachPending();
+      }
+    }
+    return null;
+  }
+
+  public void flush() {
+    final Batch batch;
+    synchronized (this) {
+      batch = detachPending();
+    }
+    if (!batch.requests.isEmpty()) {
+      ship(batch);
+    }
+  }
+
+  private Batch detachPending() {
+    if (scheduledFlush != null) {
+      scheduledFlush.cancel(false);
+      scheduledFlush = null;
+    }
+    final Batch batch = pending;
+    pending = new Batch();
+    batch.requests.forEach(request -> inFlight.add(request.getOrderId()));
+    return batch;
+  }
+
+  private void ship(Batch batch) {
+    try {
+      final List<OrderShipmentResult> results = shipment.runAll(batch.requests);
+      for (int i = 0; i < results.size(); i++) {
+        batch.results.get(i).complete(results.get(i));
+      }
+    } catch (Throwable e) {
+      batch.results.forEach(result -> result.completeExceptionally(e));
+      if (e instanceof Error) {
+        throw (Error) e;
+      }
+    } finally {
+      shipped(batch);
+    }
+  }
+
+  /**
+   * Lets the requests waiting for the orders of {@code batch} join the pending manifest.
+   */
+  private void shipped(Batch batch) {
+    final List<Batch> full = new ArrayList<>();
+    synchronized (this) {
+      batch.requests.forEach(request -> inFlight.remove(request.getOrderId()));
+      final Batch released = waiting;
+      waiting = new Batch();
+      for (int i = 0; i < released.requests.size(); i++) {
+        final Batch fullBatch = enqueue(released.requests.get(i), released.results.get(i));
+        if (fullBatch != null) {
+          full.add(fullBatch);
+        }
+      }
+      if (closed && !pending.requests.isEmpty()) {
+        full.add(detachPending());
+      }
+    }
+    full.forEach(this::ship);
+  }
+
+  /**
+   * Ships the pending requests and refuses new ones.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      closed = true;
+    }
+    flush();
+  }
+
+  private static final class Batch {
+
+    private final List<OrderShipmentRequest> requests = new ArrayList<>();
+    private final List<CompletableFuture<OrderShipmentResult>> results = new ArrayList<>();
+  }
+}
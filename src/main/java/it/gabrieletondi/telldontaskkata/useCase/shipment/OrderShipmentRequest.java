@@ -12,7 +12,7 @@ public class OrderShipmentRequest {
     return new OrderShipmentRequest(anOrderId);
   }
 
-  int getOrderId() {
+  public int getOrderId() {
     return orderId;
   }
 }
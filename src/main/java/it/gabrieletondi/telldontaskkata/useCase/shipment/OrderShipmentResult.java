@@ -0,0 +1,37 @@
+package it.gabrieletondi.telldontaskkata.useCase.shipment;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+@ToString
+@EqualsAndHashCode
+public class OrderShipmentResult {
+
+  private final int orderId;
+  private final RuntimeException failure;
+
+  private OrderShipmentResult(int orderId, RuntimeException failure) {
+    this.orderId = orderId;
+    this.failure = failure;
+  }
+
+  static OrderShipmentResult succeeded(int orderId) {
+    return new OrderShipmentResult(orderId, null);
+  }
+
+  static OrderShipmentResult failed(int orderId, RuntimeException failure) {
+    return new OrderShipmentResult(orderId, failure);
+  }
+
+  public int getOrderId() {
+    return orderId;
+  }
+
+  public boolean isSuccessful() {
+    return failure == null;
+  }
+
+  public RuntimeException getFailure() {
+    return failure;
+  }
+}
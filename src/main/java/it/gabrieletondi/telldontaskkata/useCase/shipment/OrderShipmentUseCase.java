@@ -1,22 +1,145 @@
 package it.gabrieletondi.telldontaskkata.useCase.shipment;
 
 import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.TransitionOutcome;
 import it.gabrieletondi.telldontaskkata.repository.OrderRepository;
 import it.gabrieletondi.telldontaskkata.service.ShipmentService;
+import it.gabrieletondi.telldontaskkata.useCase.ConcurrentOrderUpdateException;
+import it.gabrieletondi.telldontaskkata.useCase.RetryPolicy;
+import it.gabrieletondi.telldontaskkata.useCase.UnknownOrderException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 
 public class OrderShipmentUseCase {
 
   private final OrderRepository orderRepository;
   private final ShipmentService shipmentService;
+  private final RetryPolicy retryPolicy;
 
   public OrderShipmentUseCase(OrderRepository orderRepository, ShipmentService shipmentService) {
+    this(orderRepository, shipmentService, RetryPolicy.defaultPolicy());
+  }
+
+  public OrderShipmentUseCase(OrderRepository orderRepository, ShipmentService shipmentService,
+      RetryPolicy retryPolicy) {
     this.orderRepository = orderRepository;
     this.shipmentService = shipmentService;
+    this.retryPolicy = retryPolicy;
   }
 
   public void run(OrderShipmentRequest request) {
+    tryRun(request).orThrow();
+  }
+
+  /**
+   * Saves the order as shipped before calling the carrier, so that concurrent shipments of one order call the
+   * carrier once. If the carrier fails, the order is put back as it was.
+   */
+  public TransitionOutcome tryRun(OrderShipmentRequest request) {
     final Order order = orderRepository.orderWith(request.getOrderId());
-    shipmentService.ship(order);
-    orderRepository.save(order);
+    final ShipmentClaim claim = new ShipmentClaim();
+    final TransitionOutcome outcome = claim.apply(order);
+    if (!outcome.isApplied()) {
+      return outcome;
+    }
+    final TransitionOutcome claimed = retryPolicy.save(orderRepository, order, claim);
+    if (!claimed.isApplied()) {
+      return claimed;
+    }
+    try {
+      shipmentService.ship(claim.orderToShip());
+    } catch (RuntimeException e) {
+      claim.release(orderRepository, e);
+      throw e;
+    }
+    return TransitionOutcome.APPLIED;
+  }
+
+  /**
+   * Hands every shippable order of {@code requests} to {@link ShipmentService#shipAll} in one call. Like
+   * {@link #tryRun}, the orders are first saved as shipped with one version-checked write, and put back if
+   * the carrier fails. Orders that cannot be shipped, or that someone else ships first, are reported in
+   * their result and left out of the manifest.
+   */
+  public List<OrderShipmentResult> runAll(List<OrderShipmentRequest> requests) {
+    final Map<Integer, Order> orders = ordersFor(requests);
+    final Map<Integer, ShipmentClaim> claims = new LinkedHashMap<>();
+    final List<Order> claimedOrders = new ArrayList<>();
+    final List<OrderShipmentResult> results = new ArrayList<>(requests.size());
+    for (OrderShipmentRequest request : requests) {
+      final int orderId = request.getOrderId();
+      final Order order = orders.get(orderId);
+      if (order == null) {
+        results.add(OrderShipmentResult.failed(orderId, new UnknownOrderException()));
+        continue;
+      }
+      final ShipmentClaim claim = new ShipmentClaim();
+      final TransitionOutcome outcome = claims.containsKey(orderId)
+          ? TransitionOutcome.ORDER_CANNOT_BE_SHIPPED_TWICE
+          : claim.apply(order);
+      if (!outcome.isApplied()) {
+        results.add(OrderShipmentResult.failed(orderId, outcome.failure()));
+        continue;
+      }
+      claims.put(orderId, claim);
+      claimedOrders.add(order);
+      results.add(OrderShipmentResult.succeeded(orderId));
+    }
+    for (int orderId : orderRepository.compareAndSaveAll(claimedOrders)) {
+      final RuntimeException failure = claimAgain(orderId, claims.get(orderId));
+      if (failure != null) {
+        claims.remove(orderId);
+        failAll(results, result -> result.getOrderId() == orderId, failure);
+      }
+    }
+    if (claims.isEmpty()) {
+      return results;
+    }
+    final List<Order> manifest = new ArrayList<>(claims.size());
+    claims.values().forEach(claim -> manifest.add(claim.orderToShip()));
+    try {
+      shipmentService.shipAll(manifest);
+    } catch (RuntimeException e) {
+      claims.values().forEach(claim -> claim.release(orderRepository, e));
+      failAll(results, result -> true, e);
+    }
+    return results;
+  }
+
+  /**
+   * Claims an order whose batched claim lost a race, and returns why it cannot be shipped, or null.
+   */
+  private RuntimeException claimAgain(int orderId, ShipmentClaim claim) {
+    final Order current = orderRepository.orderWith(orderId);
+    TransitionOutcome outcome = claim.apply(current);
+    try {
+      if (outcome.isApplied()) {
+        outcome = retryPolicy.save(orderRepository, current, claim);
+      }
+    } catch (ConcurrentOrderUpdateException e) {
+      return e;
+    }
+    return outcome.failure();
+  }
+
+  private static void failAll(List<OrderShipmentResult> results, Predicate<OrderShipmentResult> which,
+      RuntimeException failure) {
+    results.replaceAll(result -> result.isSuccessful() && which.test(result)
+        ? OrderShipmentResult.failed(result.getOrderId(), failure)
+        : result);
+  }
+
+  private Map<Integer, Order> ordersFor(List<OrderShipmentRequest> requests) {
+    final int[] orderIds = requests.stream().mapToInt(OrderShipmentRequest::getOrderId).distinct().toArray();
+    final List<Order> found = orderRepository.ordersWith(orderIds);
+    final Map<Integer, Order> orders = new HashMap<>(orderIds.length * 4 / 3 + 1);
+    for (int i = 0; i < orderIds.length; i++) {
+      orders.put(orderIds[i], found.get(i));
+    }
+    return orders;
   }
 }
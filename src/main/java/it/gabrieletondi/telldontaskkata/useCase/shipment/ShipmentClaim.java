@@ -0,0 +1,62 @@
+package it.gabrieletondi.telldontaskkata.useCase.shipment;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.TransitionOutcome;
+import it.gabrieletondi.telldontaskkata.repository.AsyncOrderRepository;
+import it.gabrieletondi.telldontaskkata.repository.OrderRepository;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Moves an order to Shipped before the carrier sees it, so that of two concurrent shipments only the one
+ * whose version-checked save wins calls the carrier. Remembers the order as it was before, to hand to the
+ * carrier and to put back if the carrier fails.
+ */
+final class ShipmentClaim implements Function<Order, TransitionOutcome> {
+
+  private Order beforeShipment;
+
+  @Override
+  public TransitionOutcome apply(Order order) {
+    beforeShipment = order.withVersion(order.getVersion());
+    return order.tryShip();
+  }
+
+  Order orderToShip() {
+    return beforeShipment.withVersion(beforeShipment.getVersion());
+  }
+
+  /**
+   * Puts back the order as it was before the claim, unless it changed since, and records any failure to do
+   * so on {@code carrierFailure}.
+   */
+  void release(OrderRepository orderRepository, RuntimeException carrierFailure) {
+    try {
+      orderRepository.compareAndSave(claimedOrder());
+    } catch (RuntimeException e) {
+      carrierFailure.addSuppressed(e);
+    }
+  }
+
+  /**
+   * Returns the order as it was before the claim, with the version the claim's save gave it, so that
+   * putting it back fails once anyone else saved the order.
+   */
+  private Order claimedOrder() {
+    return beforeShipment.withVersion(beforeShipment.getVersion() + 1);
+  }
+
+  <T> CompletableFuture<T> release(AsyncOrderRepository orderRepository, Throwable carrierFailure) {
+    final Throwable failure = carrierFailure instanceof CompletionException && carrierFailure.getCause() != null
+        ? carrierFailure.getCause()
+        : carrierFailure;
+    return orderRepository.compareAndSave(claimedOrder())
+        .handle((released, releaseFailure) -> {
+          if (releaseFailure != null) {
+            failure.addSuppressed(releaseFailure);
+          }
+          throw new CompletionException(failure);
+        });
+  }
+}
@@ -1,4 +1,8 @@
 package it.gabrieletondi.telldontaskkata.useCase.shipment.invariants;
 
 public class OrderCannotBeShippedTwice extends RuntimeException {
+
+  public OrderCannotBeShippedTwice() {
+    super(null, null, false, false);
+  }
 }
@@ -1,4 +1,8 @@
 package it.gabrieletondi.telldontaskkata.useCase.shipment.invariants;
 
 public class OrderNotReadyForShippment extends RuntimeException {
+
+  public OrderNotReadyForShippment() {
+    super(null, null, false, false);
+  }
 }
@@ -0,0 +1,108 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import static it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.anOrder;
+
+import it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.SingleOrderRepository;
+import it.gabrieletondi.telldontaskkata.domain.Approved;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.repository.AsyncOrderRepository;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.AsyncOrderShipmentUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentRequest;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentUseCase;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Ships {@value #ORDERS} orders per invocation against a carrier that takes {@code carrierLatencyMillis} to
+ * respond, once through the blocking use case on a small pool and once through the asynchronous one on a pool
+ * of the same size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AsyncOrderShipmentBenchmark {
+
+  private static final int ORDERS = 1_000;
+
+  @Param({"1"})
+  private int carrierLatencyMillis;
+
+  @Param({"8"})
+  private int threads;
+
+  private ExecutorService executor;
+  private ScheduledExecutorService carrier;
+  private OrderShipmentUseCase blockingShipment;
+  private AsyncOrderShipmentUseCase asyncShipment;
+  private final OrderShipmentRequest request = OrderShipmentRequest.forOrderWith(1);
+
+  @Setup
+  public void startExecutors() {
+    executor = Executors.newFixedThreadPool(threads);
+    carrier = Executors.newScheduledThreadPool(1);
+    final SingleOrderRepository orderRepository = new SingleOrderRepository(anOrder(1, Approved.INSTANCE));
+    blockingShipment = new OrderShipmentUseCase(orderRepository, this::shipBlocking);
+    asyncShipment = new AsyncOrderShipmentUseCase(AsyncOrderRepository.over(orderRepository, executor),
+        this::shipLater);
+  }
+
+  @TearDown
+  public void stopExecutors() {
+    executor.shutdownNow();
+    carrier.shutdownNow();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ORDERS)
+  public void blocking() throws Exception {
+    final Future<?>[] shipped = new Future<?>[ORDERS];
+    for (int i = 0; i < ORDERS; i++) {
+      shipped[i] = executor.submit(() -> blockingShipment.run(request));
+    }
+    for (Future<?> done : shipped) {
+      done.get();
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ORDERS)
+  public void async() {
+    final CompletableFuture<?>[] shipped = new CompletableFuture<?>[ORDERS];
+    for (int i = 0; i < ORDERS; i++) {
+      shipped[i] = asyncShipment.run(request);
+    }
+    CompletableFuture.allOf(shipped).join();
+  }
+
+  private void shipBlocking(Order order) {
+    try {
+      Thread.sleep(carrierLatencyMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    order.ship();
+  }
+
+  private CompletableFuture<Void> shipLater(Order order) {
+    final CompletableFuture<Void> shipped = new CompletableFuture<>();
+    carrier.schedule(() -> {
+      order.ship();
+      shipped.complete(null);
+    }, carrierLatencyMillis, TimeUnit.MILLISECONDS);
+    return shipped;
+  }
+}
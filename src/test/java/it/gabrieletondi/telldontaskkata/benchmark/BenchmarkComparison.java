@@ -0,0 +1,120 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BenchmarkComparison {
+
+  private static final double DEFAULT_TOLERANCE_PERCENT = 10;
+
+  private final double tolerancePercent;
+
+  BenchmarkComparison(double tolerancePercent) {
+    this.tolerancePercent = tolerancePercent;
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("usage: BenchmarkComparison <baseline.csv> <candidate.csv> [tolerance percent]");
+      System.exit(2);
+    }
+    final double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE_PERCENT;
+    final List<String> regressions = new BenchmarkComparison(tolerance)
+        .regressions(read(args[0]), read(args[1]));
+    regressions.forEach(System.out::println);
+    System.out.println(regressions.isEmpty() ? "no regressions" : regressions.size() + " regression(s)");
+    System.exit(regressions.isEmpty() ? 0 : 1);
+  }
+
+  private static List<String> read(String path) throws IOException {
+    return Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8);
+  }
+
+  List<String> regressions(List<String> baselineCsv, List<String> candidateCsv) {
+    final Map<String, Result> baseline = results(baselineCsv);
+    final Map<String, Result> candidate = results(candidateCsv);
+    final List<String> regressions = new ArrayList<>();
+    for (Map.Entry<String, Result> entry : candidate.entrySet()) {
+      final Result before = baseline.get(entry.getKey());
+      final Result after = entry.getValue();
+      if (before == null) {
+        continue;
+      }
+      final double slowdownPercent = after.slowdownPercentComparedTo(before);
+      if (slowdownPercent > tolerancePercent) {
+        regressions.add(String.format("%s: %.3f -> %.3f %s (%.1f%% worse)",
+            entry.getKey(), before.score, after.score, after.unit, slowdownPercent));
+      }
+    }
+    return regressions;
+  }
+
+  private static Map<String, Result> results(List<String> csv) {
+    final Map<String, Result> results = new LinkedHashMap<>();
+    final List<String> header = columns(csv.get(0));
+    final int benchmark = header.indexOf("Benchmark");
+    final int mode = header.indexOf("Mode");
+    final int score = header.indexOf("Score");
+    final int unit = header.indexOf("Unit");
+    for (String line : csv.subList(1, csv.size())) {
+      if (line.trim().isEmpty()) {
+        continue;
+      }
+      final List<String> row = columns(line);
+      final StringBuilder key = new StringBuilder(row.get(benchmark));
+      for (int column = 0; column < header.size(); column++) {
+        if (header.get(column).startsWith("Param: ")) {
+          key.append(' ').append(header.get(column).substring(7)).append('=').append(row.get(column));
+        }
+      }
+      results.put(key.toString(),
+          new Result(row.get(mode), Double.parseDouble(row.get(score)), row.get(unit)));
+    }
+    return results;
+  }
+
+  private static List<String> columns(String line) {
+    final List<String> columns = new ArrayList<>();
+    final StringBuilder column = new StringBuilder();
+    boolean quoted = false;
+    for (char c : line.toCharArray()) {
+      if (c == '"') {
+        quoted = !quoted;
+      } else if (c == ',' && !quoted) {
+        columns.add(column.toString());
+        column.setLength(0);
+      } else {
+        column.append(c);
+      }
+    }
+    columns.add(column.toString());
+    return columns;
+  }
+
+  private static class Result {
+
+    private final String mode;
+    private final double score;
+    private final String unit;
+
+    Result(String mode, double score, String unit) {
+      this.mode = mode;
+      this.score = score;
+      this.unit = unit;
+    }
+
+    double slowdownPercentComparedTo(Result baseline) {
+      if (baseline.score == 0) {
+        return 0;
+      }
+      final double change = (score - baseline.score) / baseline.score * 100;
+      return "thrpt".equals(mode) ? -change : change;
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static junit.framework.TestCase.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class BenchmarkComparisonTest {
+
+  private static final String HEADER =
+      "\"Benchmark\",\"Mode\",\"Threads\",\"Samples\",\"Score\",\"Score Error (99.9%)\",\"Unit\",\"Param: items\"";
+
+  private final BenchmarkComparison comparison = new BenchmarkComparison(10);
+
+  private static List<String> csv(String... rows) {
+    final List<String> lines = new ArrayList<>(asList(rows));
+    lines.add(0, HEADER);
+    return lines;
+  }
+
+  @Test
+  public void slowerAverageTimesAreRegressions() {
+    final List<String> regressions = comparison.regressions(
+        csv("\"a.B.run\",\"avgt\",1,10,100.0,1.0,\"us/op\",10"),
+        csv("\"a.B.run\",\"avgt\",1,10,120.0,1.0,\"us/op\",10"));
+    assertEquals(asList("a.B.run items=10: 100.000 -> 120.000 us/op (20.0% worse)"), regressions);
+  }
+
+  @Test
+  public void lowerThroughputIsARegression() {
+    assertEquals(1, comparison.regressions(
+        csv("\"a.B.run\",\"thrpt\",1,10,1000.0,1.0,\"ops/s\",10"),
+        csv("\"a.B.run\",\"thrpt\",1,10,800.0,1.0,\"ops/s\",10")).size());
+  }
+
+  @Test
+  public void changesWithinTheToleranceAreIgnored() {
+    assertEquals(emptyList(), comparison.regressions(
+        csv("\"a.B.run\",\"avgt\",1,10,100.0,1.0,\"us/op\",10"),
+        csv("\"a.B.run\",\"avgt\",1,10,105.0,1.0,\"us/op\",10",
+            "\"a.B.run\",\"avgt\",1,10,500.0,1.0,\"us/op\",100")));
+  }
+}
@@ -0,0 +1,71 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.OrderStatus;
+import it.gabrieletondi.telldontaskkata.domain.Price;
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import it.gabrieletondi.telldontaskkata.domain.Products;
+import it.gabrieletondi.telldontaskkata.repository.OrderRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkFixtures {
+
+  private BenchmarkFixtures() {
+  }
+
+  static String productName(int i) {
+    return "product " + i;
+  }
+
+  static List<Product> products(int count) {
+    final List<Product> products = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      products.add(new Product(productName(i),
+          new Price(BigDecimal.valueOf(100 + i * 7L, 2), new BigDecimal(i % 2 == 0 ? "10" : "22"))));
+    }
+    return products;
+  }
+
+  static Products catalog(int count) {
+    return new Products(products(count));
+  }
+
+  static Order anOrder(int id, OrderStatus status) {
+    return new Order(id, status, new ArrayList<>(), "EUR", BigDecimal.ZERO, BigDecimal.ZERO);
+  }
+
+  static class DiscardingOrderRepository implements OrderRepository {
+
+    private Order lastSaved;
+
+    @Override
+    public void save(Order order) {
+      lastSaved = order;
+    }
+
+    @Override
+    public Order orderWith(int orderId) {
+      return lastSaved;
+    }
+  }
+
+  static class SingleOrderRepository implements OrderRepository {
+
+    private final Order template;
+
+    SingleOrderRepository(Order template) {
+      this.template = template;
+    }
+
+    @Override
+    public void save(Order order) {
+    }
+
+    @Override
+    public Order orderWith(int orderId) {
+      return template.withVersion(0);
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import static it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.products;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.OrderEvent;
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import it.gabrieletondi.telldontaskkata.repository.EventSourcedOrderRepository;
+import it.gabrieletondi.telldontaskkata.repository.InMemoryOrderEventStore;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Rebuilds an order whose history holds {@code events} added items, with a snapshot every
+ * {@code snapshotEvery} events or, for 0, without snapshots.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventSourcedOrderRepositoryBenchmark {
+
+  @Param({"100", "10000"})
+  private int events;
+
+  @Param({"0", "64"})
+  private int snapshotEvery;
+
+  private EventSourcedOrderRepository repository;
+
+  @Setup
+  public void recordHistory() {
+    final InMemoryOrderEventStore eventStore = new InMemoryOrderEventStore();
+    final List<Product> products = products(4);
+    if (snapshotEvery == 0) {
+      repository = new EventSourcedOrderRepository(eventStore, Integer.MAX_VALUE);
+      final List<OrderEvent> history = new ArrayList<>();
+      history.add(OrderEvent.created(1, "EUR"));
+      final Order order = history.get(0).newOrder();
+      order.publishTo(history::add);
+      for (int i = 1; i < events; i++) {
+        order.add(products.get(i % 4), 1);
+      }
+      eventStore.append(1, 0, history);
+    } else {
+      repository = new EventSourcedOrderRepository(eventStore, snapshotEvery);
+      repository.save(Order.withoutOrderItems(1));
+      for (int i = 1; i < events; i++) {
+        final Order order = repository.orderWith(1);
+        order.add(products.get(i % 4), 1);
+        repository.save(order);
+      }
+    }
+  }
+
+  @Benchmark
+  public Order orderWith() {
+    return repository.orderWith(1);
+  }
+}
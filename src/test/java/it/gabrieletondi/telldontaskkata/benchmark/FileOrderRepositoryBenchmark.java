@@ -0,0 +1,62 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import static it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.products;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import it.gabrieletondi.telldontaskkata.repository.FileOrderRepository;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FileOrderRepositoryBenchmark {
+
+  @Param({"1000000"})
+  private int orders;
+
+  private Path directory;
+
+  @Setup
+  public void writeOrders() throws IOException {
+    directory = Files.createTempDirectory("orders");
+    final List<Product> products = products(4);
+    try (FileOrderRepository repository = new FileOrderRepository(directory)) {
+      for (int id = 0; id < orders; id++) {
+        final Order order = Order.withoutOrderItems(id);
+        order.add(products.get(id % 4), 1 + id % 3);
+        order.add(products.get((id + 1) % 4), 2);
+        repository.save(order);
+      }
+    }
+  }
+
+  @TearDown
+  public void deleteOrders() throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Benchmark
+  public int rebuildIndex() throws IOException {
+    try (FileOrderRepository repository = new FileOrderRepository(directory)) {
+      return repository.size();
+    }
+  }
+}
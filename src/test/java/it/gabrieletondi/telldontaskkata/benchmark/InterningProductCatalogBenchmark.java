@@ -0,0 +1,97 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import static java.util.Arrays.asList;
+
+import it.gabrieletondi.telldontaskkata.domain.Price;
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import it.gabrieletondi.telldontaskkata.domain.Products;
+import it.gabrieletondi.telldontaskkata.repository.InMemoryOrderRepository;
+import it.gabrieletondi.telldontaskkata.repository.InterningProductCatalog;
+import it.gabrieletondi.telldontaskkata.repository.ProductCatalog;
+import it.gabrieletondi.telldontaskkata.useCase.creation.OrderCreationUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.creation.SellItemRequest;
+import it.gabrieletondi.telldontaskkata.useCase.creation.SellItemsRequest;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Creates {@code orders} orders from a catalog that returns new copies of its products on every call, with
+ * and without interning them. {@link #retainedHeap} reports the heap the created orders keep as a counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class InterningProductCatalogBenchmark {
+
+  @Param({"50000"})
+  private int orders;
+
+  @Param({"copies", "interned"})
+  private String products;
+
+  private ProductCatalog catalog;
+
+  @Setup(Level.Iteration)
+  public void createCatalog() {
+    final ProductCatalog copying = names -> new Products(names.stream()
+        .map(name -> new Product(name, new Price(new BigDecimal("3.56"), new BigDecimal("10"))))
+        .collect(Collectors.toList()));
+    catalog = products.equals("interned") ? new InterningProductCatalog(copying) : copying;
+  }
+
+  @Benchmark
+  public InMemoryOrderRepository createOrders() {
+    final InMemoryOrderRepository repository = new InMemoryOrderRepository();
+    final OrderCreationUseCase creation = new OrderCreationUseCase(repository, catalog);
+    final SellItemsRequest request = new SellItemsRequest(
+        asList(new SellItemRequest("salad", 2), new SellItemRequest("tomato", 3)));
+    for (int i = 0; i < orders; i++) {
+      creation.run(request);
+    }
+    return repository;
+  }
+
+  /**
+   * Creates the orders like {@link #createOrders} between two full collections and counts the heap they
+   * keep in {@code retainedKiB}, which JMH sums over the measured iterations. Its time includes the
+   * collections, so only the counter is meant to be read.
+   */
+  @Benchmark
+  public InMemoryOrderRepository retainedHeap(Retained retained) {
+    final long before = usedHeap();
+    final InMemoryOrderRepository repository = createOrders();
+    retained.retainedKiB = (usedHeap() - before) / 1024;
+    return repository;
+  }
+
+  private static long usedHeap() {
+    final Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Retained {
+
+    public long retainedKiB;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      retainedKiB = 0;
+    }
+  }
+}
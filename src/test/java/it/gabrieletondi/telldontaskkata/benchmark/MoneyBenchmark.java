@@ -0,0 +1,55 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import it.gabrieletondi.telldontaskkata.domain.Money;
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoneyBenchmark {
+
+  @Param({"100", "10000"})
+  private int lines;
+
+  private BigDecimal[] decimalAmounts;
+  private Money[] moneyAmounts;
+
+  @Setup
+  public void createAmounts() {
+    final Random random = new Random(42);
+    decimalAmounts = new BigDecimal[lines];
+    moneyAmounts = new Money[lines];
+    for (int i = 0; i < lines; i++) {
+      decimalAmounts[i] = BigDecimal.valueOf(random.nextInt(100_000), 2);
+      moneyAmounts[i] = Money.of(decimalAmounts[i]);
+    }
+  }
+
+  @Benchmark
+  public BigDecimal sumBigDecimals() {
+    BigDecimal total = new BigDecimal("0.00");
+    for (BigDecimal amount : decimalAmounts) {
+      total = total.add(amount);
+    }
+    return total;
+  }
+
+  @Benchmark
+  public Money sumMoney() {
+    Money total = Money.ZERO;
+    for (Money amount : moneyAmounts) {
+      total = total.plus(amount);
+    }
+    return total;
+  }
+}
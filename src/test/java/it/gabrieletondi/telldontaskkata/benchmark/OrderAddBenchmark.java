@@ -0,0 +1,46 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.Price;
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderAddBenchmark {
+
+  private static final int CATALOG_SIZE = 64;
+
+  @Param({"100", "10000"})
+  private int items;
+
+  private Product[] products;
+
+  @Setup
+  public void createProducts() {
+    products = new Product[CATALOG_SIZE];
+    for (int i = 0; i < CATALOG_SIZE; i++) {
+      products[i] = new Product("product " + i,
+          new Price(new BigDecimal(i + 1).add(new BigDecimal("0.99")), new BigDecimal(i % 2 == 0 ? "10" : "22")));
+    }
+  }
+
+  @Benchmark
+  public Order addItems() {
+    final Order order = Order.withoutOrderItems(1);
+    for (int i = 0; i < items; i++) {
+      order.add(products[i % CATALOG_SIZE], 1 + i % 5);
+    }
+    return order;
+  }
+}
@@ -0,0 +1,48 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import static it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.anOrder;
+
+import it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.SingleOrderRepository;
+import it.gabrieletondi.telldontaskkata.domain.OrderTransitions;
+import it.gabrieletondi.telldontaskkata.domain.TransitionOutcome;
+import it.gabrieletondi.telldontaskkata.useCase.OrderApprovalRequest;
+import it.gabrieletondi.telldontaskkata.useCase.approval.ApproveOrderRequest;
+import it.gabrieletondi.telldontaskkata.useCase.approval.OrderApprovalUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.rejection.RejectOrderRequest;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderApprovalUseCaseBenchmark {
+
+  @Param({"0", "1", "2", "3"})
+  private int statusCode;
+
+  @Param({"approve", "reject"})
+  private String request;
+
+  private OrderApprovalUseCase approval;
+  private OrderApprovalRequest approvalRequest;
+
+  @Setup
+  public void createOrder() {
+    approval = new OrderApprovalUseCase(
+        new SingleOrderRepository(anOrder(1, OrderTransitions.statusWithCode(statusCode))));
+    approvalRequest = "approve".equals(request) ? ApproveOrderRequest.forOrderWith(1)
+        : RejectOrderRequest.forOrderWith(1);
+  }
+
+  @Benchmark
+  public TransitionOutcome updateStatus() {
+    return approval.tryRun(approvalRequest);
+  }
+}
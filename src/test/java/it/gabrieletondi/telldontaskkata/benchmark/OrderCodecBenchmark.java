@@ -0,0 +1,86 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import static it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.products;
+
+import it.gabrieletondi.telldontaskkata.codec.OrderCodec;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderCodecBenchmark {
+
+  @Param({"1", "10", "100"})
+  private int items;
+
+  private final OrderCodec codec = new OrderCodec();
+  private final ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+  private Order order;
+  private ByteBuffer encoded;
+
+  @Setup
+  public void createOrder() {
+    final List<Product> products = products(8);
+    order = Order.withoutOrderItems(1);
+    for (int i = 0; i < items; i++) {
+      order.add(products.get(i % products.size()), 1 + i % 3);
+    }
+    encoded = ByteBuffer.allocate(1 << 20);
+    codec.encode(order, encoded);
+    encoded.flip();
+  }
+
+  @Benchmark
+  public ByteBuffer encode() {
+    buffer.clear();
+    codec.encode(order, buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  public Order decode() {
+    return codec.decode(encoded.duplicate());
+  }
+
+  @Benchmark
+  public String toText() {
+    return order.toString();
+  }
+
+  /**
+   * Reports the encoded and textual sizes of the order next to the timings.
+   */
+  @Benchmark
+  public void size(Sizes sizes) {
+    sizes.encodedBytes = encoded.remaining();
+    sizes.textChars = order.toString().length();
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Sizes {
+
+    public int encodedBytes;
+    public int textChars;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      encodedBytes = 0;
+      textChars = 0;
+    }
+  }
+}
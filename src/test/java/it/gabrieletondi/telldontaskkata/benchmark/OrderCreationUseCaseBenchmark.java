@@ -0,0 +1,58 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import static it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.catalog;
+import static it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.productName;
+
+import it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.DiscardingOrderRepository;
+import it.gabrieletondi.telldontaskkata.domain.Products;
+import it.gabrieletondi.telldontaskkata.repository.ProductCatalog;
+import it.gabrieletondi.telldontaskkata.useCase.creation.OrderCreationUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.creation.SellItemRequest;
+import it.gabrieletondi.telldontaskkata.useCase.creation.SellItemsRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderCreationUseCaseBenchmark {
+
+  private static final int CATALOG_SIZE = 1_000;
+
+  @Param({"1", "10", "100", "1000"})
+  private int items;
+
+  private DiscardingOrderRepository orderRepository;
+  private OrderCreationUseCase creation;
+  private SellItemsRequest request;
+
+  @Setup
+  public void createRequest() {
+    final Products products = catalog(CATALOG_SIZE);
+    final ProductCatalog productCatalog = products::allWith;
+    orderRepository = new DiscardingOrderRepository();
+    creation = new OrderCreationUseCase(orderRepository, productCatalog);
+    final Random random = new Random(42);
+    final List<SellItemRequest> lines = new ArrayList<>(items);
+    for (int i = 0; i < items; i++) {
+      lines.add(new SellItemRequest(productName(random.nextInt(CATALOG_SIZE)), 1 + random.nextInt(10)));
+    }
+    request = new SellItemsRequest(lines);
+  }
+
+  @Benchmark
+  public Object createOrder() {
+    creation.run(request);
+    return orderRepository.orderWith(0);
+  }
+}
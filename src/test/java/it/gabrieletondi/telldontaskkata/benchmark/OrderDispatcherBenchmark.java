@@ -0,0 +1,86 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import static it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.anOrder;
+
+import it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.SingleOrderRepository;
+import it.gabrieletondi.telldontaskkata.domain.Approved;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.useCase.approval.OrderApprovalUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.dispatch.OrderDispatcher;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentRequest;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentUseCase;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Ships {@value #ORDERS} distinct orders per invocation through a carrier that blocks for
+ * {@code carrierLatencyMillis}, on virtual threads (platform threads per task before JDK 21) or on a fixed
+ * pool of {@code poolSize} threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrderDispatcherBenchmark {
+
+  private static final int ORDERS = 1_000;
+
+  @Param({"virtual", "fixed"})
+  private String threads;
+
+  @Param({"1"})
+  private int carrierLatencyMillis;
+
+  @Param({"64"})
+  private int poolSize;
+
+  private OrderDispatcher dispatcher;
+  private final OrderShipmentRequest[] requests = new OrderShipmentRequest[ORDERS];
+
+  @Setup
+  public void startDispatcher() {
+    final SingleOrderRepository orderRepository = new SingleOrderRepository(anOrder(1, Approved.INSTANCE));
+    final OrderApprovalUseCase approval = new OrderApprovalUseCase(orderRepository);
+    final OrderShipmentUseCase shipment = new OrderShipmentUseCase(orderRepository, this::shipBlocking);
+    dispatcher = threads.equals("virtual")
+        ? OrderDispatcher.onVirtualThreads(null, approval, shipment)
+        : new OrderDispatcher(null, approval, shipment, Executors.newFixedThreadPool(poolSize));
+    for (int i = 0; i < ORDERS; i++) {
+      requests[i] = OrderShipmentRequest.forOrderWith(i);
+    }
+  }
+
+  @TearDown
+  public void stopDispatcher() throws InterruptedException {
+    dispatcher.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ORDERS)
+  public void ship() {
+    final CompletableFuture<?>[] shipped = new CompletableFuture<?>[ORDERS];
+    for (int i = 0; i < ORDERS; i++) {
+      shipped[i] = dispatcher.submit(requests[i]);
+    }
+    CompletableFuture.allOf(shipped).join();
+  }
+
+  private void shipBlocking(Order order) {
+    try {
+      Thread.sleep(carrierLatencyMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    order.ship();
+  }
+}
@@ -0,0 +1,111 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import static it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.catalog;
+import static it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.productName;
+
+import it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.DiscardingOrderRepository;
+import it.gabrieletondi.telldontaskkata.domain.Products;
+import it.gabrieletondi.telldontaskkata.repository.ProductCatalog;
+import it.gabrieletondi.telldontaskkata.repository.SequentialOrderIdGenerator;
+import it.gabrieletondi.telldontaskkata.useCase.creation.ImportFormat;
+import it.gabrieletondi.telldontaskkata.useCase.creation.IngestionReport;
+import it.gabrieletondi.telldontaskkata.useCase.creation.OrderCreationUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.creation.OrderIngestionPipeline;
+import it.gabrieletondi.telldontaskkata.useCase.creation.SellItemRequest;
+import it.gabrieletondi.telldontaskkata.useCase.creation.SellItemsRequest;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Imports a CSV of {@code orders} orders with three lines each, through {@link OrderCreationUseCase} one
+ * order at a time and through {@link OrderIngestionPipeline}, with a catalog that takes
+ * {@code catalogLatencyMicros} per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderIngestionPipelineBenchmark {
+
+  private static final int CATALOG_SIZE = 1_000;
+  private static final int LINES_PER_ORDER = 3;
+
+  @Param({"10000"})
+  private int orders;
+
+  @Param({"0", "50"})
+  private int catalogLatencyMicros;
+
+  private String csv;
+  private ProductCatalog productCatalog;
+  private ExecutorService executor;
+
+  @Setup
+  public void writeCsv() {
+    final Random random = new Random(42);
+    final StringBuilder lines = new StringBuilder();
+    for (int order = 0; order < orders; order++) {
+      for (int line = 0; line < LINES_PER_ORDER; line++) {
+        lines.append(order).append(',').append(productName(random.nextInt(CATALOG_SIZE))).append(',')
+            .append(1 + random.nextInt(10)).append('\n');
+      }
+    }
+    csv = lines.toString();
+    final Products products = catalog(CATALOG_SIZE);
+    final long latencyNanos = TimeUnit.MICROSECONDS.toNanos(catalogLatencyMicros);
+    productCatalog = productNames -> {
+      if (latencyNanos > 0) {
+        LockSupport.parkNanos(latencyNanos);
+      }
+      return products.allWith(productNames);
+    };
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @TearDown
+  public void stopExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  public int oneOrderAtATime() {
+    final OrderCreationUseCase creation = new OrderCreationUseCase(new DiscardingOrderRepository(), productCatalog);
+    int created = 0;
+    List<SellItemRequest> items = new ArrayList<>();
+    String reference = null;
+    for (String line : csv.split("\n")) {
+      final String[] fields = line.split(",");
+      if (reference != null && !reference.equals(fields[0])) {
+        creation.run(new SellItemsRequest(items));
+        created++;
+        items = new ArrayList<>();
+      }
+      reference = fields[0];
+      items.add(new SellItemRequest(fields[1], Integer.parseInt(fields[2])));
+    }
+    creation.run(new SellItemsRequest(items));
+    return created + 1;
+  }
+
+  @Benchmark
+  public IngestionReport pipeline() {
+    return new OrderIngestionPipeline(new DiscardingOrderRepository(), productCatalog,
+        new SequentialOrderIdGenerator(), executor, 256, 4)
+        .ingest(new StringReader(csv), ImportFormat.CSV, new StringWriter());
+  }
+}
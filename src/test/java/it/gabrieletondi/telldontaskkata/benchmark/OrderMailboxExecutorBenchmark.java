@@ -0,0 +1,74 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import static it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.anOrder;
+
+import it.gabrieletondi.telldontaskkata.domain.Created;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.repository.InMemoryOrderRepository;
+import it.gabrieletondi.telldontaskkata.useCase.approval.ApproveOrderRequest;
+import it.gabrieletondi.telldontaskkata.useCase.approval.OrderApprovalUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.dispatch.OrderMailboxExecutor;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentUseCase;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Approves {@value #REQUESTS} requests spread over {@value #ORDERS} orders per invocation through the mailbox
+ * executor on pools of increasing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrderMailboxExecutorBenchmark {
+
+  private static final int ORDERS = 1_024;
+  private static final int REQUESTS = 16_384;
+
+  @Param({"1", "2", "4", "8"})
+  private int threads;
+
+  private ExecutorService executor;
+  private OrderMailboxExecutor mailboxes;
+  private final ApproveOrderRequest[] requests = new ApproveOrderRequest[REQUESTS];
+
+  @Setup
+  public void startExecutor() {
+    final InMemoryOrderRepository orderRepository = new InMemoryOrderRepository();
+    for (int id = 0; id < ORDERS; id++) {
+      orderRepository.save(anOrder(id, Created.INSTANCE));
+    }
+    executor = Executors.newFixedThreadPool(threads);
+    mailboxes = new OrderMailboxExecutor(new OrderApprovalUseCase(orderRepository),
+        new OrderShipmentUseCase(orderRepository, Order::ship), executor, 256, REQUESTS);
+    for (int i = 0; i < REQUESTS; i++) {
+      requests[i] = ApproveOrderRequest.forOrderWith(i % ORDERS);
+    }
+  }
+
+  @TearDown
+  public void stopExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(REQUESTS)
+  public void approve() {
+    final CompletableFuture<?>[] approved = new CompletableFuture<?>[REQUESTS];
+    for (int i = 0; i < REQUESTS; i++) {
+      approved[i] = mailboxes.submit(requests[i]);
+    }
+    CompletableFuture.allOf(approved).join();
+  }
+}
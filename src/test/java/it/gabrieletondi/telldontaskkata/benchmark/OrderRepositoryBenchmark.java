@@ -0,0 +1,66 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import it.gabrieletondi.telldontaskkata.domain.Created;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.doubles.TestOrderRepository;
+import it.gabrieletondi.telldontaskkata.repository.InMemoryOrderRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderRepositoryBenchmark {
+
+  @Param({"10000", "1000000"})
+  private int orders;
+
+  private TestOrderRepository listRepository;
+  private InMemoryOrderRepository stripedRepository;
+
+  @Setup
+  public void fill() {
+    listRepository = new TestOrderRepository();
+    stripedRepository = new InMemoryOrderRepository();
+    for (int id = 0; id < orders; id++) {
+      final Order order = new Order(id, new Created(), new ArrayList<>(), "EUR", BigDecimal.ZERO, BigDecimal.ZERO);
+      listRepository.add(order);
+      stripedRepository.save(order);
+    }
+  }
+
+  private int anyId() {
+    return ThreadLocalRandom.current().nextInt(orders);
+  }
+
+  @Benchmark
+  public Order listOrderWith() {
+    return listRepository.orderWith(anyId());
+  }
+
+  @Benchmark
+  public Order stripedOrderWith() {
+    return stripedRepository.orderWith(anyId());
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Order stripedOrderWithContended() {
+    final int id = anyId();
+    if ((id & 7) == 0) {
+      stripedRepository.save(stripedRepository.orderWith(id));
+    }
+    return stripedRepository.orderWith(id);
+  }
+}
@@ -0,0 +1,42 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import static it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.anOrder;
+
+import it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.SingleOrderRepository;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.OrderTransitions;
+import it.gabrieletondi.telldontaskkata.domain.TransitionOutcome;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentRequest;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentUseCase;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderShipmentUseCaseBenchmark {
+
+  @Param({"0", "1", "2", "3"})
+  private int statusCode;
+
+  private OrderShipmentUseCase shipment;
+  private final OrderShipmentRequest request = OrderShipmentRequest.forOrderWith(1);
+
+  @Setup
+  public void createOrder() {
+    shipment = new OrderShipmentUseCase(
+        new SingleOrderRepository(anOrder(1, OrderTransitions.statusWithCode(statusCode))), Order::ship);
+  }
+
+  @Benchmark
+  public TransitionOutcome ship() {
+    return shipment.tryRun(request);
+  }
+}
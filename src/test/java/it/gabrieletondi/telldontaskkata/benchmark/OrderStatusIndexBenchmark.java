@@ -0,0 +1,73 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import it.gabrieletondi.telldontaskkata.domain.Approved;
+import it.gabrieletondi.telldontaskkata.domain.Created;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.repository.InMemoryOrderRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Finds the approved orders among {@code orders}, one in {@code approvedEvery} of them, by reading every
+ * order and by the status index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderStatusIndexBenchmark {
+
+  @Param({"10000", "1000000"})
+  private int orders;
+
+  @Param({"100"})
+  private int approvedEvery;
+
+  private InMemoryOrderRepository repository;
+
+  @Setup
+  public void fill() {
+    repository = new InMemoryOrderRepository();
+    for (int id = 0; id < orders; id++) {
+      final Order order = new Order(id, new Created(), new ArrayList<>(), "EUR", BigDecimal.ZERO, BigDecimal.ZERO);
+      if (id % approvedEvery == 0) {
+        order.approve();
+      }
+      repository.save(order);
+    }
+  }
+
+  @Benchmark
+  public long scanApproved() {
+    long approved = 0;
+    for (int id = 0; id < orders; id++) {
+      if (repository.orderWith(id).has(Approved.INSTANCE)) {
+        approved++;
+      }
+    }
+    return approved;
+  }
+
+  @Benchmark
+  public long streamApprovedIds() {
+    return repository.orderIdsWith(Approved.INSTANCE).count();
+  }
+
+  @Benchmark
+  public long streamApprovedOrders() {
+    return repository.ordersWith(Approved.INSTANCE).count();
+  }
+
+  @Benchmark
+  public int countApproved() {
+    return repository.countOf(Approved.INSTANCE);
+  }
+}
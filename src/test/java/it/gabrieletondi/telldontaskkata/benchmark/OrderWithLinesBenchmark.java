@@ -0,0 +1,64 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import static it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.products;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.OrderLine;
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Creates an order of {@code lines} lines by adding them one by one and with {@link Order#withLines},
+ * sequentially and split in ranges of 4096 lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderWithLinesBenchmark {
+
+  private static final int CATALOG_SIZE = 64;
+
+  @Param({"100", "10000", "100000"})
+  private int lines;
+
+  private List<Product> products;
+  private List<OrderLine> orderLines;
+
+  @Setup
+  public void createLines() {
+    products = products(CATALOG_SIZE);
+    orderLines = new ArrayList<>(lines);
+    for (int i = 0; i < lines; i++) {
+      orderLines.add(new OrderLine(products.get(i % CATALOG_SIZE), 1 + i % 5));
+    }
+  }
+
+  @Benchmark
+  public Order addOneByOne() {
+    final Order order = Order.withoutOrderItems(1);
+    for (int i = 0; i < lines; i++) {
+      order.add(products.get(i % CATALOG_SIZE), 1 + i % 5);
+    }
+    return order;
+  }
+
+  @Benchmark
+  public Order withLinesSequential() {
+    return Order.withLines(1, orderLines, Integer.MAX_VALUE);
+  }
+
+  @Benchmark
+  public Order withLinesForkJoin() {
+    return Order.withLines(1, orderLines, 4096);
+  }
+}
@@ -0,0 +1,50 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.Price;
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PriceBenchmark {
+
+  @Param({"3.56", "1.005"})
+  private String amount;
+
+  @Param({"10", "7.5"})
+  private String taxPercentage;
+
+  private BigDecimal decimalAmount;
+  private BigDecimal decimalTaxPercentage;
+  private Product product;
+
+  @Setup
+  public void createPrice() {
+    decimalAmount = new BigDecimal(amount);
+    decimalTaxPercentage = new BigDecimal(taxPercentage);
+    product = new Product("product", new Price(decimalAmount, decimalTaxPercentage));
+  }
+
+  @Benchmark
+  public Price computeTaxes() {
+    return new Price(decimalAmount, decimalTaxPercentage);
+  }
+
+  @Benchmark
+  public Order addLine() {
+    final Order order = Order.withoutOrderItems(1);
+    order.add(product, 3);
+    return order;
+  }
+}
@@ -0,0 +1,60 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import static it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.catalog;
+import static it.gabrieletondi.telldontaskkata.benchmark.BenchmarkFixtures.productName;
+
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import it.gabrieletondi.telldontaskkata.domain.Products;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductsBenchmark {
+
+  private static final int LOOKUPS = 100;
+
+  @Param({"10", "1000", "100000"})
+  private int catalogSize;
+
+  private Products products;
+  private String[] names;
+  private List<String> nameList;
+  private int next;
+
+  @Setup
+  public void createCatalog() {
+    products = catalog(catalogSize);
+    final Random random = new Random(42);
+    names = new String[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) {
+      names[i] = productName(random.nextInt(catalogSize));
+    }
+    nameList = new ArrayList<>();
+    for (String name : names) {
+      nameList.add(name);
+    }
+  }
+
+  @Benchmark
+  public Product oneWithThe() {
+    next = (next + 1) % LOOKUPS;
+    return products.oneWithThe(names[next]);
+  }
+
+  @Benchmark
+  public Products allWith() {
+    return products.allWith(nameList);
+  }
+}
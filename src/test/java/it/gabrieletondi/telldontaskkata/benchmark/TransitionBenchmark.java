@@ -0,0 +1,51 @@
+package it.gabrieletondi.telldontaskkata.benchmark;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.Shipped;
+import it.gabrieletondi.telldontaskkata.domain.TransitionOutcome;
+import it.gabrieletondi.telldontaskkata.useCase.approval.invariants.ShippedOrdersCannotBeApproved;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransitionBenchmark {
+
+  private final Order shippedOrder = new Order(1, new Shipped(), new ArrayList<>(), "EUR", BigDecimal.ZERO,
+      BigDecimal.ZERO);
+
+  @Benchmark
+  public Object rejectedWithStackTrace() {
+    try {
+      throw new LegacyShippedOrdersCannotBeApproved();
+    } catch (LegacyShippedOrdersCannotBeApproved e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public Object rejectedWithPreallocatedException() {
+    try {
+      shippedOrder.approve();
+      return null;
+    } catch (ShippedOrdersCannotBeApproved e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public TransitionOutcome rejectedWithOutcome() {
+    return shippedOrder.tryApprove();
+  }
+
+  private static class LegacyShippedOrdersCannotBeApproved extends RuntimeException {
+  }
+}
@@ -0,0 +1,133 @@
+package it.gabrieletondi.telldontaskkata.codec;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+import it.gabrieletondi.telldontaskkata.domain.Money;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.OrderStatus;
+import it.gabrieletondi.telldontaskkata.domain.OrderTransitions;
+import it.gabrieletondi.telldontaskkata.domain.OrderWriter;
+import it.gabrieletondi.telldontaskkata.domain.Price;
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class OrderCodecTest {
+
+  private final OrderCodec codec = new OrderCodec();
+  private final Product salad = new Product("salad", new Price(new BigDecimal("3.56"), new BigDecimal("10")));
+  private final Product tomato = new Product("tomato", new Price(new BigDecimal("4.65"), new BigDecimal("10")));
+
+  private Order roundTrip(Order order) {
+    final ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+    codec.encode(order, buffer);
+    buffer.flip();
+    final Order decoded = codec.decode(buffer);
+    assertEquals(0, buffer.remaining());
+    return decoded;
+  }
+
+  @Test
+  public void decodesWhatItEncodes() {
+    final Order order = Order.withoutOrderItems(42);
+    order.add(salad, 2);
+    order.add(tomato, 3);
+    order.add(salad, 1);
+    order.approve();
+
+    final Order decoded = roundTrip(order.withVersion(7));
+
+    assertEquals(order, decoded);
+    assertEquals(7, decoded.getVersion());
+  }
+
+  @Test
+  public void decodesEveryStatus() {
+    for (OrderStatus status : OrderTransitions.statuses()) {
+      final Order order = new Order(1, status, new ArrayList<>(), "EUR", Money.ZERO, Money.ZERO, 0);
+      assertEquals(order, roundTrip(order));
+    }
+  }
+
+  @Test
+  public void decodesNegativeIdsAndAmountsAndNonAsciiNames() {
+    final Product crepe = new Product("cr\u00eape \ud83e\udd5e", new Price(new BigDecimal("-0.015"), new BigDecimal("22.5")));
+    final Order order = new Order(-3, OrderTransitions.statusWithCode(0), new ArrayList<>(), "z\u0142",
+        Money.ofMinorUnits(-12), Money.ofMinorUnits(Long.MIN_VALUE), Long.MAX_VALUE);
+    order.add(crepe, 4);
+
+    final Order decoded = roundTrip(order);
+
+    assertEquals(order, decoded);
+    assertEquals(Long.MAX_VALUE, decoded.getVersion());
+  }
+
+  @Test
+  public void decodesOrdersWithManyDistinctProducts() {
+    final Order order = Order.withoutOrderItems(1);
+    for (int i = 0; i < 1_000; i++) {
+      order.add(new Product("product " + i % 300, new Price(BigDecimal.valueOf(100 + i % 7, 2), BigDecimal.TEN)),
+          1 + i % 5);
+    }
+    assertEquals(order, roundTrip(order));
+  }
+
+  @Test
+  public void decodesRepeatedProductsAsOneInstance() {
+    final Order first = Order.withoutOrderItems(1);
+    first.add(salad, 1);
+    final Order second = Order.withoutOrderItems(2);
+    second.add(salad, 2);
+
+    final Order firstDecoded = roundTrip(first);
+    final Order secondDecoded = roundTrip(second);
+
+    final ProductCollector firstProducts = new ProductCollector();
+    final ProductCollector secondProducts = new ProductCollector();
+    firstDecoded.writeTo(firstProducts);
+    secondDecoded.writeTo(secondProducts);
+    assertSame(firstProducts.names.get(0), secondProducts.names.get(0));
+  }
+
+  @Test
+  public void encodesFarSmallerThanTheTextualForm() {
+    final Order order = Order.withoutOrderItems(1);
+    for (int i = 0; i < 100; i++) {
+      order.add(i % 2 == 0 ? salad : tomato, 1 + i % 3);
+    }
+    final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+    codec.encode(order, buffer);
+
+    assertTrue(buffer.position() * 20 < order.toString().length());
+  }
+
+  @Test(expected = BufferOverflowException.class)
+  public void reportsABufferTooSmallForTheOrder() {
+    final Order order = Order.withoutOrderItems(1);
+    order.add(salad, 1);
+    codec.encode(order, ByteBuffer.allocate(8));
+  }
+
+  private static class ProductCollector implements OrderWriter {
+
+    private final List<String> names = new ArrayList<>();
+
+    @Override
+    public void order(int id, OrderStatus status, String currency, Money total, Money tax, long version,
+        int items) {
+    }
+
+    @Override
+    public void item(String productName, BigDecimal price, BigDecimal taxPercentage, int quantity,
+        Money taxedAmount, Money taxAmount) {
+      names.add(productName);
+    }
+  }
+}
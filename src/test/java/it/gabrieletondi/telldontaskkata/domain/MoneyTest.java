@@ -0,0 +1,104 @@
+package it.gabrieletondi.telldontaskkata.domain;
+
+import static java.math.BigDecimal.valueOf;
+import static java.math.RoundingMode.HALF_UP;
+import static junit.framework.TestCase.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class MoneyTest {
+
+  private static final int SAMPLES = 20_000;
+
+  private final Random random = new Random(20261017L);
+
+  private static BigDecimal referenceUnitaryTax(BigDecimal amount, BigDecimal taxPercentage) {
+    return amount.divide(valueOf(100)).multiply(taxPercentage).setScale(2, HALF_UP);
+  }
+
+  private static BigDecimal referenceTaxedAmount(BigDecimal amount, BigDecimal taxPercentage, int quantity) {
+    return amount.add(referenceUnitaryTax(amount, taxPercentage)).multiply(valueOf(quantity)).setScale(2, HALF_UP);
+  }
+
+  private static BigDecimal referenceTaxAmount(BigDecimal amount, BigDecimal taxPercentage, int quantity) {
+    return referenceUnitaryTax(amount, taxPercentage).multiply(valueOf(quantity)).setScale(2, HALF_UP);
+  }
+
+  private BigDecimal anyAmount() {
+    return BigDecimal.valueOf(random.nextInt(10_000_000), random.nextInt(4));
+  }
+
+  private BigDecimal anyTaxPercentage() {
+    return BigDecimal.valueOf(random.nextInt(3_000), random.nextInt(3));
+  }
+
+  private int anyQuantity() {
+    return 1 + random.nextInt(1_000);
+  }
+
+  @Test
+  public void lineAmountsMatchBigDecimalArithmetic() {
+    for (int i = 0; i < SAMPLES; i++) {
+      final BigDecimal amount = anyAmount();
+      final BigDecimal taxPercentage = anyTaxPercentage();
+      final int quantity = anyQuantity();
+      final Price price = new Price(amount, taxPercentage);
+
+      assertEquals(referenceTaxedAmount(amount, taxPercentage, quantity), price.taxedAmountFor(quantity).toBigDecimal());
+      assertEquals(referenceTaxAmount(amount, taxPercentage, quantity), price.taxAmountFor(quantity).toBigDecimal());
+    }
+  }
+
+  @Test
+  public void orderTotalsMatchBigDecimalArithmetic() {
+    for (int sample = 0; sample < 200; sample++) {
+      final Order order = Order.withoutOrderItems(1);
+      final List<OrderItem> expectedItems = new ArrayList<>();
+      BigDecimal expectedTotal = new BigDecimal("0.00");
+      BigDecimal expectedTax = new BigDecimal("0.00");
+      for (int line = random.nextInt(50); line >= 0; line--) {
+        final BigDecimal amount = anyAmount();
+        final BigDecimal taxPercentage = anyTaxPercentage();
+        final int quantity = anyQuantity();
+        final Product product = new Product("product " + line, new Price(amount, taxPercentage));
+        final BigDecimal taxed = referenceTaxedAmount(amount, taxPercentage, quantity);
+        final BigDecimal tax = referenceTaxAmount(amount, taxPercentage, quantity);
+
+        order.add(product, quantity);
+        expectedItems.add(new OrderItem(product, quantity, taxed, tax));
+        expectedTotal = expectedTotal.add(taxed);
+        expectedTax = expectedTax.add(tax);
+      }
+
+      assertEquals(new Order(1, Created.INSTANCE, expectedItems, "EUR", expectedTotal, expectedTax), order);
+      assertEquals("Order(id=1, status=" + Created.INSTANCE + ", items=" + expectedItems + ", currency=EUR, total="
+          + expectedTotal + ", tax=" + expectedTax + ", version=0)", order.toString());
+    }
+  }
+
+  @Test
+  public void roundsHalfUpToCents() {
+    assertEquals(Money.ofMinorUnits(101), Money.of(new BigDecimal("1.005")));
+    assertEquals(Money.ofMinorUnits(-101), Money.of(new BigDecimal("-1.005")));
+    assertEquals(Money.ofMinorUnits(100), Money.of(new BigDecimal("1.004")));
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void additionOverflowIsAnError() {
+    Money.ofMinorUnits(Long.MAX_VALUE).plus(Money.ofMinorUnits(1));
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void multiplicationOverflowIsAnError() {
+    Money.ofMinorUnits(Long.MAX_VALUE / 2).times(3);
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void amountsBeyondTheLongRangeAreAnError() {
+    Money.of(new BigDecimal("1e30"));
+  }
+}
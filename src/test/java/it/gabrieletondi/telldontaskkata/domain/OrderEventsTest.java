@@ -0,0 +1,57 @@
+package it.gabrieletondi.telldontaskkata.domain;
+
+import static java.util.Arrays.asList;
+import static junit.framework.TestCase.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class OrderEventsTest {
+
+  private final Product salad = new Product("salad", new Price(new BigDecimal("3.56"), new BigDecimal("10")));
+  private final List<OrderEvent> events = new ArrayList<>();
+
+  @Test
+  public void emitsAnEventForEveryChange() {
+    final Order order = Order.withoutOrderItems(1);
+    order.publishTo(events::add);
+
+    order.add(salad, 2);
+    order.approve();
+    order.ship();
+
+    assertEquals(asList(OrderEvent.itemAdded(1, salad, 2), OrderEvent.movedTo(1, Approved.INSTANCE),
+        OrderEvent.movedTo(1, Shipped.INSTANCE)), events);
+  }
+
+  @Test
+  public void emitsNothingForRefusedTransitions() {
+    final Order order = Order.withoutOrderItems(1);
+    order.reject();
+    order.publishTo(events::add);
+
+    order.tryApprove();
+    order.tryShip();
+
+    assertEquals(0, events.size());
+  }
+
+  @Test
+  public void replayingTheEventsRebuildsTheOrder() {
+    final Order order = Order.withoutOrderItems(1);
+    events.add(OrderEvent.created(1, "EUR"));
+    order.publishTo(events::add);
+    order.add(salad, 2);
+    order.add(salad, 1);
+    order.reject();
+
+    final Order replayed = events.get(0).newOrder();
+    for (OrderEvent event : events) {
+      event.replayOn(replayed);
+    }
+
+    assertEquals(order, replayed);
+  }
+}
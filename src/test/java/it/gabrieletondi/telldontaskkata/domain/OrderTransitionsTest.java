@@ -0,0 +1,51 @@
+package it.gabrieletondi.telldontaskkata.domain;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import org.junit.Test;
+
+public class OrderTransitionsTest {
+
+  @Test
+  public void listsTheLegalMovesOfEveryStatus() {
+    assertEquals(asList(Approved.INSTANCE, Rejected.INSTANCE), OrderTransitions.legalTargetsFrom(Created.INSTANCE));
+    assertEquals(asList(Approved.INSTANCE, Shipped.INSTANCE), OrderTransitions.legalTargetsFrom(Approved.INSTANCE));
+    assertEquals(asList(Rejected.INSTANCE), OrderTransitions.legalTargetsFrom(Rejected.INSTANCE));
+    assertEquals(emptyList(), OrderTransitions.legalTargetsFrom(Shipped.INSTANCE));
+  }
+
+  @Test
+  public void nothingLeadsBackToCreated() {
+    for (OrderStatus status : OrderTransitions.statuses()) {
+      assertFalse(OrderTransitions.isLegal(status, Created.INSTANCE));
+    }
+  }
+
+  @Test
+  public void statusesAreFoundByCode() {
+    for (OrderStatus status : OrderTransitions.statuses()) {
+      assertSame(status, OrderTransitions.statusWithCode(status.code()));
+    }
+  }
+
+  @Test
+  public void transitionsMoveToTheCanonicalStatus() {
+    assertSame(Approved.INSTANCE, new Created().toApproved());
+    assertSame(Shipped.INSTANCE, new Approved().toShipped());
+  }
+
+  @Test
+  public void ordersCreatedWithAnyStatusInstanceMatchTheCanonicalOne() {
+    final Order order = new Order(1, new Approved(), new ArrayList<>(), "EUR", BigDecimal.ZERO, BigDecimal.ZERO);
+    assertTrue(order.has(Approved.INSTANCE));
+    assertEquals(TransitionOutcome.APPLIED, order.tryShip());
+    assertTrue(order.has(new Shipped()));
+  }
+}
@@ -0,0 +1,73 @@
+package it.gabrieletondi.telldontaskkata.domain;
+
+import static java.util.Arrays.asList;
+import static junit.framework.TestCase.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class OrderWithLinesTest {
+
+  private final Random random = new Random(7);
+
+  private Product aProduct(int i) {
+    final BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(100_000), 1 + random.nextInt(3));
+    return new Product("product " + i, new Price(amount, new BigDecimal(i % 3 == 0 ? "10" : "21.5")));
+  }
+
+  private List<OrderLine> lines(int count) {
+    return lines(count, Order.withoutOrderItems(0));
+  }
+
+  private List<OrderLine> lines(int count, Order addedOneByOne) {
+    final List<OrderLine> lines = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      final Product product = aProduct(i);
+      final int quantity = 1 + random.nextInt(50);
+      lines.add(new OrderLine(product, quantity));
+      addedOneByOne.add(product, quantity);
+    }
+    return lines;
+  }
+
+  @Test
+  public void holdsTheSameItemsAndTotalsAsAddingEachLine() {
+    final Order expected = Order.withoutOrderItems(1);
+    final List<OrderLine> lines = lines(10_000, expected);
+
+    assertEquals(expected, Order.withLines(1, lines));
+    assertEquals(expected, Order.withLines(1, lines, 1));
+    assertEquals(expected, Order.withLines(1, lines, 7));
+    assertEquals(expected, Order.withLines(1, lines, Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void mergesLinesOfTheSameProduct() {
+    final Product salad = new Product("salad", new Price(new BigDecimal("3.56"), new BigDecimal("10")));
+    final Product tomato = new Product("tomato", new Price(new BigDecimal("4.65"), new BigDecimal("10")));
+    final List<OrderLine> lines = asList(new OrderLine(salad, 2), new OrderLine(tomato, 1), new OrderLine(salad, 5));
+
+    assertEquals(asList(new OrderLine(salad, 7), new OrderLine(tomato, 1)), OrderLine.merged(lines));
+  }
+
+  @Test
+  public void keepsApartLinesWhoseTaxedUnitPriceHasFractionsOfCents() {
+    final Product bolt = new Product("bolt", new Price(new BigDecimal("0.333"), new BigDecimal("10")));
+    final List<OrderLine> lines = asList(new OrderLine(bolt, 1), new OrderLine(bolt, 1));
+
+    assertEquals(lines, OrderLine.merged(lines));
+  }
+
+  @Test
+  public void createsEmptyOrders() {
+    assertEquals(Order.withoutOrderItems(3), Order.withLines(3, new ArrayList<>(), 1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsNonPositiveThresholds() {
+    Order.withLines(1, lines(1), 0);
+  }
+}
@@ -0,0 +1,44 @@
+package it.gabrieletondi.telldontaskkata.domain;
+
+import static java.util.Arrays.asList;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertSame;
+
+import it.gabrieletondi.telldontaskkata.useCase.creation.UnknownProductException;
+import java.math.BigDecimal;
+import org.junit.Test;
+
+public class ProductsTest {
+
+  private final Product salad = new Product("salad", new Price(new BigDecimal("3.56"), new BigDecimal("10")));
+  private final Product tomato = new Product("tomato", new Price(new BigDecimal("4.65"), new BigDecimal("10")));
+  private final Products products = new Products(asList(salad, tomato));
+
+  @Test
+  public void findsProductByName() {
+    assertSame(tomato, products.oneWithThe("tomato"));
+  }
+
+  @Test
+  public void unknownNameFindsNothing() {
+    assertNull(products.oneWithThe("unknown product"));
+  }
+
+  @Test
+  public void firstProductWithADuplicatedNameWins() {
+    final Product otherSalad = new Product("salad", new Price(new BigDecimal("1.00"), new BigDecimal("10")));
+    assertSame(salad, new Products(asList(salad, otherSalad)).oneWithThe("salad"));
+  }
+
+  @Test
+  public void selectsAllProductsWithTheGivenNames() {
+    final Products selected = products.allWith(asList("tomato", "salad", "tomato"));
+    assertSame(salad, selected.oneWithThe("salad"));
+    assertSame(tomato, selected.oneWithThe("tomato"));
+  }
+
+  @Test(expected = UnknownProductException.class)
+  public void cannotSelectUnknownProducts() {
+    products.allWith(asList("salad", "unknown product"));
+  }
+}
@@ -27,7 +27,7 @@ public class TestOrderRepository implements OrderRepository {
   }
 
   public boolean orderIsNotSaved() {
-    return savedOrderIs(null);
+    return insertedOrder == null;
   }
 
   public boolean savedOrderMatches(Order thisOrder) {
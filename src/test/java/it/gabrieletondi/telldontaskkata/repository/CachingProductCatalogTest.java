@@ -0,0 +1,113 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import static java.util.Arrays.asList;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertSame;
+
+import it.gabrieletondi.telldontaskkata.domain.Price;
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import it.gabrieletondi.telldontaskkata.domain.Products;
+import it.gabrieletondi.telldontaskkata.useCase.creation.UnknownProductException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class CachingProductCatalogTest {
+
+  private final Product salad = new Product("salad", new Price(new BigDecimal("3.56"), new BigDecimal("10")));
+  private final Product tomato = new Product("tomato", new Price(new BigDecimal("4.65"), new BigDecimal("10")));
+  private final Product onion = new Product("onion", new Price(new BigDecimal("0.80"), new BigDecimal("10")));
+  private final CountingCatalog backingCatalog = new CountingCatalog(new Products(asList(salad, tomato, onion)));
+  private long now;
+  private final CachingProductCatalog catalog =
+      new CachingProductCatalog(backingCatalog, 2, Duration.ofSeconds(10), () -> now);
+
+  @Test
+  public void secondLookupIsServedFromTheCache() {
+    catalog.productsWith(asList("salad"));
+    final Products products = catalog.productsWith(asList("salad"));
+
+    assertSame(salad, products.oneWithThe("salad"));
+    assertEquals(1, backingCatalog.calls.size());
+    assertEquals(1, catalog.hitCount());
+    assertEquals(1, catalog.missCount());
+  }
+
+  @Test
+  public void onlyMissesAreFetchedInASingleCall() {
+    catalog.productsWith(asList("salad"));
+    catalog.productsWith(asList("salad", "tomato", "tomato"));
+
+    assertEquals(asList(asList("salad"), asList("tomato")), backingCatalog.calls);
+  }
+
+  @Test
+  public void evictsTheLeastRecentlyUsedProduct() {
+    catalog.productsWith(asList("salad", "tomato"));
+    catalog.productsWith(asList("salad"));
+    catalog.productsWith(asList("onion"));
+    catalog.productsWith(asList("salad", "tomato"));
+
+    assertEquals(asList(asList("salad", "tomato"), asList("onion"), asList("tomato")), backingCatalog.calls);
+    assertEquals(2, catalog.evictionCount());
+  }
+
+  @Test
+  public void expiredProductsAreFetchedAgain() {
+    catalog.productsWith(asList("salad"));
+    now += Duration.ofSeconds(10).toNanos();
+    catalog.productsWith(asList("salad"));
+
+    assertEquals(2, backingCatalog.calls.size());
+  }
+
+  @Test
+  public void invalidatedProductsAreFetchedAgain() {
+    catalog.productsWith(asList("salad", "tomato"));
+    catalog.invalidate("salad");
+    catalog.productsWith(asList("salad", "tomato"));
+
+    assertEquals(asList(asList("salad", "tomato"), asList("salad")), backingCatalog.calls);
+  }
+
+  @Test
+  public void largeCachesKeepTheirMaximumSizeAcrossStripes() {
+    final List<Product> many = new ArrayList<>();
+    for (int i = 0; i < 5_000; i++) {
+      many.add(new Product("product " + i, new Price(BigDecimal.ONE, BigDecimal.TEN)));
+    }
+    final CachingProductCatalog large = new CachingProductCatalog(new Products(many)::allWith, 1_000);
+
+    for (int i = 0; i < 5_000; i++) {
+      large.productsWith(asList("product " + i));
+    }
+
+    assertEquals(1_000, large.size());
+    assertEquals(4_000, large.evictionCount());
+    assertSame(many.get(4_999), large.productsWith(asList("product 4999")).oneWithThe("product 4999"));
+    assertEquals(1, large.hitCount());
+  }
+
+  @Test(expected = UnknownProductException.class)
+  public void unknownProductsAreStillRejected() {
+    catalog.productsWith(asList("salad", "unknown product"));
+  }
+
+  private static class CountingCatalog implements ProductCatalog {
+
+    private final Products products;
+    private final List<List<String>> calls = new ArrayList<>();
+
+    CountingCatalog(Products products) {
+      this.products = products;
+    }
+
+    @Override
+    public Products productsWith(List<String> productNames) {
+      calls.add(productNames);
+      return products.allWith(productNames);
+    }
+  }
+}
@@ -0,0 +1,205 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import static java.util.Arrays.asList;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+import it.gabrieletondi.telldontaskkata.domain.Price;
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import it.gabrieletondi.telldontaskkata.domain.Products;
+import it.gabrieletondi.telldontaskkata.useCase.creation.UnknownProductException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class CoalescingProductCatalogTest {
+
+  private final Product salad = new Product("salad", new Price(new BigDecimal("3.56"), new BigDecimal("10")));
+  private final Product tomato = new Product("tomato", new Price(new BigDecimal("4.65"), new BigDecimal("10")));
+  private final Products products = new Products(asList(salad, tomato));
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @After
+  public void stopExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void looksUpProductsThroughTheBackingCatalog() {
+    final CoalescingProductCatalog catalog = new CoalescingProductCatalog(products::allWith);
+    final Products found = catalog.productsWith(asList("salad", "tomato"));
+    assertSame(salad, found.oneWithThe("salad"));
+    assertSame(tomato, found.oneWithThe("tomato"));
+    assertEquals(1, catalog.delegateCallCount());
+  }
+
+  @Test
+  public void concurrentLookupsOfAProductInFlightShareOneCall() throws Exception {
+    final CountDownLatch delegateEntered = new CountDownLatch(1);
+    final CountDownLatch releaseDelegate = new CountDownLatch(1);
+    final AtomicInteger calls = new AtomicInteger();
+    final CoalescingProductCatalog catalog = new CoalescingProductCatalog(names -> {
+      calls.incrementAndGet();
+      delegateEntered.countDown();
+      awaitQuietly(releaseDelegate);
+      return products.allWith(names);
+    });
+
+    final Future<Products> first = executor.submit(() -> catalog.productsWith(asList("salad")));
+    delegateEntered.await();
+    final Future<Products> second = executor.submit(() -> catalog.productsWith(asList("salad")));
+    while (catalog.coalescedLookupCount() == 0) {
+      Thread.yield();
+    }
+    releaseDelegate.countDown();
+
+    assertSame(salad, first.get().oneWithThe("salad"));
+    assertSame(salad, second.get().oneWithThe("salad"));
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  public void lookupsArrivingWithinTheWindowAreBatched() throws Exception {
+    final int callers = 16;
+    final CoalescingProductCatalog catalog =
+        new CoalescingProductCatalog(products::allWith, Duration.ofMillis(100), 1_000);
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Future<Products>> lookups = new ArrayList<>();
+    for (int i = 0; i < callers; i++) {
+      final List<String> names = i % 2 == 0 ? asList("salad") : asList("tomato", "salad");
+      lookups.add(executor.submit(() -> {
+        start.await();
+        return catalog.productsWith(names);
+      }));
+    }
+    start.countDown();
+
+    for (Future<Products> lookup : lookups) {
+      assertSame(salad, lookup.get().oneWithThe("salad"));
+    }
+    assertTrue(catalog.delegateCallCount() < callers);
+  }
+
+  @Test
+  public void anUnknownProductOnlyFailsTheCallerAskingForIt() throws Exception {
+    final CoalescingProductCatalog catalog =
+        new CoalescingProductCatalog(products::allWith, Duration.ofMillis(100), 1_000);
+    final CountDownLatch start = new CountDownLatch(1);
+    final Future<Products> known = executor.submit(() -> {
+      start.await();
+      return catalog.productsWith(asList("salad"));
+    });
+    final Future<Products> unknown = executor.submit(() -> {
+      start.await();
+      return catalog.productsWith(asList("unknown product"));
+    });
+    start.countDown();
+
+    assertSame(salad, known.get().oneWithThe("salad"));
+    try {
+      unknown.get();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof UnknownProductException);
+      return;
+    }
+    throw new AssertionError("unknown product was found");
+  }
+
+  @Test
+  public void fetchesTheKnownProductsOfABatchAgainInOneCall() {
+    final CoalescingProductCatalog catalog = new CoalescingProductCatalog(products::allWith);
+
+    try {
+      catalog.productsWith(asList("salad", "unknown product", "tomato", "another unknown product"));
+    } catch (UnknownProductException expected) {
+      assertEquals(2, catalog.delegateCallCount());
+      return;
+    }
+    throw new AssertionError("unknown products were found");
+  }
+
+  @Test
+  public void findsTheUnknownProductsOfACatalogThatDoesNotNameThem() {
+    final CoalescingProductCatalog catalog = new CoalescingProductCatalog(names -> {
+      if (names.contains("unknown product")) {
+        throw new UnknownProductException();
+      }
+      return products.allWith(names);
+    });
+
+    try {
+      catalog.productsWith(asList("salad", "unknown product", "tomato"));
+    } catch (UnknownProductException expected) {
+      assertSame(salad, catalog.productsWith(asList("salad")).oneWithThe("salad"));
+      return;
+    }
+    throw new AssertionError("unknown product was found");
+  }
+
+  @Test
+  public void anErrorOfTheBackingCatalogReachesEveryCallerWaitingOnIt() throws Exception {
+    final CountDownLatch delegateEntered = new CountDownLatch(1);
+    final CountDownLatch releaseDelegate = new CountDownLatch(1);
+    final CoalescingProductCatalog catalog = new CoalescingProductCatalog(names -> {
+      delegateEntered.countDown();
+      awaitQuietly(releaseDelegate);
+      throw new LinkageError("catalog is broken");
+    });
+
+    final Future<Products> first = executor.submit(() -> catalog.productsWith(asList("salad")));
+    delegateEntered.await();
+    final Future<Products> second = executor.submit(() -> catalog.productsWith(asList("salad")));
+    while (catalog.coalescedLookupCount() == 0) {
+      Thread.yield();
+    }
+    releaseDelegate.countDown();
+
+    for (Future<Products> lookup : asList(first, second)) {
+      try {
+        lookup.get(10, TimeUnit.SECONDS);
+        throw new AssertionError("lookup did not fail");
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof LinkageError);
+      }
+    }
+  }
+
+  @Test
+  public void anErrorInOneBatchStillFetchesTheOtherBatchesOfTheCall() throws Exception {
+    final AtomicInteger failingCalls = new AtomicInteger(1);
+    final CoalescingProductCatalog catalog = new CoalescingProductCatalog(names -> {
+      if (failingCalls.getAndDecrement() > 0) {
+        throw new LinkageError("catalog is broken");
+      }
+      return products.allWith(names);
+    }, Duration.ZERO, 1);
+
+    try {
+      catalog.productsWith(asList("salad", "tomato"));
+      throw new AssertionError("lookup did not fail");
+    } catch (LinkageError expected) {
+      assertEquals(2, catalog.delegateCallCount());
+    }
+    final Future<Products> later = executor.submit(() -> catalog.productsWith(asList("tomato", "salad")));
+    assertSame(tomato, later.get(10, TimeUnit.SECONDS).oneWithThe("tomato"));
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import static java.util.Arrays.asList;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import it.gabrieletondi.telldontaskkata.domain.Approved;
+import it.gabrieletondi.telldontaskkata.domain.Money;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.OrderEvent;
+import it.gabrieletondi.telldontaskkata.domain.OrderEvent.Kind;
+import it.gabrieletondi.telldontaskkata.domain.Price;
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import it.gabrieletondi.telldontaskkata.domain.Shipped;
+import it.gabrieletondi.telldontaskkata.useCase.UnknownOrderException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class EventSourcedOrderRepositoryTest {
+
+  private final Product salad = new Product("salad", new Price(new BigDecimal("3.56"), new BigDecimal("10")));
+  private final Product tomato = new Product("tomato", new Price(new BigDecimal("4.65"), new BigDecimal("10")));
+  private final InMemoryOrderEventStore eventStore = new InMemoryOrderEventStore();
+  private final EventSourcedOrderRepository repository = new EventSourcedOrderRepository(eventStore, 4);
+
+  private Order anApprovedOrder(int id) {
+    final Order order = Order.withoutOrderItems(id);
+    order.add(salad, 2);
+    order.add(tomato, 3);
+    order.approve();
+    return order;
+  }
+
+  private List<Kind> kindsOfEventsOf(int orderId) {
+    final List<Kind> kinds = new ArrayList<>();
+    for (OrderEvent event : eventStore.eventsOf(orderId)) {
+      kinds.add(event.getKind());
+    }
+    return kinds;
+  }
+
+  @Test
+  public void rebuildsSavedOrdersFromTheirEvents() {
+    final Order order = anApprovedOrder(1);
+
+    repository.save(order);
+
+    assertEquals(order, repository.orderWith(1));
+    assertEquals(1, repository.orderWith(1).getVersion());
+    assertEquals(asList(Kind.CREATED, Kind.ITEM_ADDED, Kind.ITEM_ADDED, Kind.APPROVED),
+        kindsOfEventsOf(1));
+  }
+
+  @Test
+  public void appendsOnlyWhatChangedSinceTheOrderWasRead() {
+    repository.save(anApprovedOrder(1));
+    final Order order = repository.orderWith(1);
+    order.ship();
+
+    assertTrue(repository.compareAndSave(order));
+
+    assertTrue(repository.orderWith(1).has(Shipped.INSTANCE));
+    assertEquals(2, repository.orderWith(1).getVersion());
+    assertEquals(Kind.SHIPPED, eventStore.eventsOf(1).get(4).getKind());
+    assertEquals(5, eventStore.eventsOf(1).size());
+  }
+
+  @Test
+  public void recordsTheTransitionsTheOrderWentThrough() {
+    final Order order = Order.withoutOrderItems(1);
+    order.approve();
+    order.ship();
+
+    repository.save(order);
+
+    assertEquals(asList(Kind.CREATED, Kind.APPROVED, Kind.SHIPPED), kindsOfEventsOf(1));
+  }
+
+  @Test
+  public void refusesToSaveOverAVersionItDidNotRead() {
+    repository.save(anApprovedOrder(1));
+    final Order first = repository.orderWith(1);
+    final Order second = repository.orderWith(1);
+    first.ship();
+    second.approve();
+
+    assertTrue(repository.compareAndSave(first));
+    assertFalse(repository.compareAndSave(second));
+  }
+
+  @Test
+  public void rebuildsLongHistoriesFromTheLatestSnapshot() {
+    repository.save(Order.withoutOrderItems(1));
+    for (int i = 0; i < 50; i++) {
+      final Order order = repository.orderWith(1);
+      order.add(i % 2 == 0 ? salad : tomato, 1);
+      repository.save(order);
+    }
+
+    final OrderHistory history = eventStore.historyOf(1);
+    assertTrue(history.eventsAfterSnapshot() < 4);
+    final Order replayedFromScratch = new OrderHistory(null, 0, eventStore.eventsOf(1), history.version()).replay();
+    assertEquals(replayedFromScratch, repository.orderWith(1));
+    assertEquals(51, repository.orderWith(1).getVersion());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void refusesAStatusNoRecordedTransitionLeadsTo() {
+    repository.save(Order.withoutOrderItems(1));
+
+    repository.save(new Order(1, Shipped.INSTANCE, new ArrayList<>(), "EUR", Money.ZERO, Money.ZERO, 1));
+  }
+
+  @Test(expected = UnknownOrderException.class)
+  public void unknownOrdersAreReported() {
+    repository.orderWith(1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void refusesOrdersItsEventsCannotProduce() {
+    repository.save(new Order(1, Approved.INSTANCE, new ArrayList<>(), "EUR", Money.ofMinorUnits(100), Money.ZERO, 0));
+  }
+}
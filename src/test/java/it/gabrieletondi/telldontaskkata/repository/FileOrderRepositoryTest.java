@@ -0,0 +1,175 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+import it.gabrieletondi.telldontaskkata.domain.Approved;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.Price;
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import it.gabrieletondi.telldontaskkata.useCase.UnknownOrderException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileOrderRepositoryTest {
+
+  private static final int SMALL_SEGMENT = 4096;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final Product salad = new Product("salad", new Price(new BigDecimal("3.56"), new BigDecimal("10")));
+  private final Product tomato = new Product("tomato", new Price(new BigDecimal("4.65"), new BigDecimal("10")));
+
+  private Order anOrderWithItems(int id) {
+    final Order order = Order.withoutOrderItems(id);
+    order.add(salad, 2);
+    order.add(tomato, 3);
+    return order;
+  }
+
+  private FileOrderRepository repositoryIn(Path directory) {
+    return new FileOrderRepository(directory, SMALL_SEGMENT, Runnable::run);
+  }
+
+  @Test
+  public void findsSavedOrdersById() throws IOException {
+    try (FileOrderRepository repository = repositoryIn(folder.getRoot().toPath())) {
+      final Order order = anOrderWithItems(42);
+      repository.save(order);
+
+      assertEquals(order, repository.orderWith(42));
+      assertEquals(1, repository.orderWith(42).getVersion());
+    }
+  }
+
+  @Test(expected = UnknownOrderException.class)
+  public void unknownOrdersAreReported() throws IOException {
+    try (FileOrderRepository repository = repositoryIn(folder.getRoot().toPath())) {
+      repository.orderWith(1);
+    }
+  }
+
+  @Test
+  public void ordersSurviveARestart() throws IOException {
+    final Path directory = folder.getRoot().toPath();
+    final Order approved = anOrderWithItems(1);
+    approved.approve();
+    try (FileOrderRepository repository = repositoryIn(directory)) {
+      repository.save(anOrderWithItems(1));
+      repository.save(approved);
+      repository.save(anOrderWithItems(2));
+    }
+
+    try (FileOrderRepository reopened = repositoryIn(directory)) {
+      assertEquals(2, reopened.size());
+      assertEquals(approved, reopened.orderWith(1));
+      assertEquals(2, reopened.orderWith(1).getVersion());
+      assertTrue(reopened.orderWith(1).has(Approved.INSTANCE));
+      assertNull(reopened.ordersWith(new int[]{3}).get(0));
+    }
+  }
+
+  @Test
+  public void savesOnlyOverTheVersionThatWasRead() throws IOException {
+    try (FileOrderRepository repository = repositoryIn(folder.getRoot().toPath())) {
+      repository.save(anOrderWithItems(1));
+      final Order first = repository.orderWith(1);
+      final Order second = repository.orderWith(1);
+      first.approve();
+      second.reject();
+
+      assertTrue(repository.compareAndSave(first));
+      assertFalse(repository.compareAndSave(second));
+      assertTrue(repository.orderWith(1).has(Approved.INSTANCE));
+    }
+  }
+
+  @Test
+  public void compactsSegmentsHoldingOnlyOverwrittenOrders() throws IOException {
+    final Path directory = folder.getRoot().toPath();
+    try (FileOrderRepository repository = repositoryIn(directory)) {
+      for (int round = 0; round < 100; round++) {
+        for (int id = 0; id < 10; id++) {
+          repository.save(anOrderWithItems(id));
+        }
+      }
+
+      assertTrue(repository.segmentCount() <= 3);
+      assertEquals(100, repository.orderWith(7).getVersion());
+    }
+
+    try (FileOrderRepository reopened = repositoryIn(directory)) {
+      assertEquals(10, reopened.size());
+      assertEquals(100, reopened.orderWith(7).getVersion());
+    }
+  }
+
+  @Test
+  public void dropsATornAppendOnRestart() throws IOException {
+    final Path directory = folder.getRoot().toPath();
+    try (FileOrderRepository repository = repositoryIn(directory)) {
+      repository.save(anOrderWithItems(1));
+      repository.save(anOrderWithItems(1));
+    }
+    try (RandomAccessFile segment = new RandomAccessFile(directory.resolve("orders-00000001.log").toFile(), "rw")) {
+      final int secondRecord = 20 + segment.readInt();
+      segment.seek(secondRecord + 30);
+      final int payloadByte = segment.readByte();
+      segment.seek(secondRecord + 30);
+      segment.writeByte(payloadByte ^ 0xFF);
+    }
+
+    try (FileOrderRepository reopened = repositoryIn(directory)) {
+      assertEquals(1, reopened.orderWith(1).getVersion());
+    }
+  }
+
+  @Test
+  public void reportsAFailedBackgroundCompactionOnTheNextFlush() throws IOException {
+    final Path directory = folder.getRoot().toPath();
+    final List<Runnable> compactions = new ArrayList<>();
+    try (FileOrderRepository repository = new FileOrderRepository(directory, SMALL_SEGMENT, compactions::add)) {
+      while (compactions.isEmpty()) {
+        repository.save(anOrderWithItems(1));
+      }
+      Files.delete(directory.resolve("orders-00000001.log"));
+
+      compactions.get(0).run();
+
+      try {
+        repository.flush();
+        fail("compaction failure was not reported");
+      } catch (IllegalStateException expected) {
+        assertTrue(expected.getCause() instanceof UncheckedIOException);
+      }
+      repository.flush();
+    }
+  }
+
+  @Test
+  public void refusesCallsOnceClosed() throws IOException {
+    final FileOrderRepository repository = repositoryIn(folder.getRoot().toPath());
+    repository.save(anOrderWithItems(1));
+    repository.close();
+
+    try {
+      repository.orderWith(1);
+      fail("closed repository returned an order");
+    } catch (IllegalStateException expected) {
+      repository.close();
+    }
+  }
+}
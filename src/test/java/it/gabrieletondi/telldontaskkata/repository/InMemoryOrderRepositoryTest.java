@@ -0,0 +1,216 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import it.gabrieletondi.telldontaskkata.domain.Approved;
+import it.gabrieletondi.telldontaskkata.domain.Created;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.Rejected;
+import it.gabrieletondi.telldontaskkata.domain.Shipped;
+import it.gabrieletondi.telldontaskkata.useCase.UnknownOrderException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Test;
+
+public class InMemoryOrderRepositoryTest {
+
+  private final InMemoryOrderRepository orderRepository = new InMemoryOrderRepository();
+
+  private static Order anOrderWithId(int id) {
+    return new Order(id, new Created(), new ArrayList<>(), "EUR", BigDecimal.ZERO, BigDecimal.ZERO);
+  }
+
+  @Test
+  public void findsSavedOrdersById() {
+    final Order order = anOrderWithId(42);
+    orderRepository.save(order);
+    assertEquals(order, orderRepository.orderWith(42));
+  }
+
+  @Test
+  public void savingAnOrderAgainReplacesIt() {
+    orderRepository.save(anOrderWithId(7));
+    final Order replacement = anOrderWithId(7);
+    replacement.approve();
+    orderRepository.save(replacement);
+    assertEquals(replacement, orderRepository.orderWith(7));
+    assertEquals(1, orderRepository.size());
+  }
+
+  @Test
+  public void storesAnyIntId() {
+    final int[] ids = {0, -1, Integer.MIN_VALUE, Integer.MAX_VALUE};
+    for (int id : ids) {
+      orderRepository.save(anOrderWithId(id));
+    }
+    for (int id : ids) {
+      assertEquals(id, orderRepository.orderWith(id).getId());
+    }
+  }
+
+  @Test
+  public void changesToAReadOrderAreNotStoredUntilSaved() {
+    orderRepository.save(anOrderWithId(3));
+    orderRepository.orderWith(3).approve();
+    assertEquals(anOrderWithId(3), orderRepository.orderWith(3));
+  }
+
+  @Test
+  public void everySaveBumpsTheStoredVersion() {
+    orderRepository.save(anOrderWithId(5));
+    orderRepository.save(anOrderWithId(5));
+    assertEquals(2, orderRepository.orderWith(5).getVersion());
+  }
+
+  @Test
+  public void compareAndSaveStoresOrdersWithTheCurrentVersion() {
+    orderRepository.save(anOrderWithId(5));
+    final Order order = orderRepository.orderWith(5);
+    order.approve();
+    assertTrue(orderRepository.compareAndSave(order));
+    assertEquals(order, orderRepository.orderWith(5));
+    assertEquals(2, orderRepository.orderWith(5).getVersion());
+  }
+
+  @Test
+  public void compareAndSaveRejectsStaleOrders() {
+    orderRepository.save(anOrderWithId(5));
+    final Order stale = orderRepository.orderWith(5);
+    final Order fresh = orderRepository.orderWith(5);
+    fresh.reject();
+    assertTrue(orderRepository.compareAndSave(fresh));
+    stale.approve();
+    assertFalse(orderRepository.compareAndSave(stale));
+    assertEquals(fresh, orderRepository.orderWith(5));
+  }
+
+  @Test
+  public void compareAndSaveStoresNewOrders() {
+    assertTrue(orderRepository.compareAndSave(anOrderWithId(9)));
+    assertFalse(orderRepository.compareAndSave(anOrderWithId(9)));
+  }
+
+  @Test
+  public void compareAndSaveAllReportsTheStaleOrders() {
+    orderRepository.save(anOrderWithId(1));
+    orderRepository.save(anOrderWithId(2));
+    final Order fresh = orderRepository.orderWith(1);
+    final Order stale = orderRepository.orderWith(2);
+    orderRepository.save(anOrderWithId(2));
+
+    final int[] conflicts = orderRepository.compareAndSaveAll(Arrays.asList(fresh, stale, anOrderWithId(3)));
+
+    assertEquals("[2]", Arrays.toString(conflicts));
+    assertEquals(2, orderRepository.orderWith(1).getVersion());
+    assertEquals(1, orderRepository.orderWith(3).getVersion());
+  }
+
+  @Test
+  public void countsOrdersByStatus() {
+    orderRepository.save(anOrderWithId(1));
+    orderRepository.save(anOrderWithId(2));
+    final Order approved = anOrderWithId(3);
+    approved.approve();
+    orderRepository.save(approved);
+
+    assertEquals(2, orderRepository.countOf(Created.INSTANCE));
+    assertEquals(1, orderRepository.countOf(Approved.INSTANCE));
+    assertEquals(0, orderRepository.countOf(Shipped.INSTANCE));
+  }
+
+  @Test
+  public void movesOrdersBetweenStatusesOnSave() {
+    orderRepository.save(anOrderWithId(1));
+    final Order order = orderRepository.orderWith(1);
+    order.approve();
+    orderRepository.save(order);
+    order.ship();
+    assertFalse(orderRepository.compareAndSave(order.withVersion(0)));
+
+    assertEquals(0, orderRepository.countOf(Created.INSTANCE));
+    assertEquals(1, orderRepository.countOf(Approved.INSTANCE));
+    assertEquals(1, orderRepository.ordersWith(Approved.INSTANCE).count());
+    orderRepository.save(order);
+    assertEquals(0, orderRepository.countOf(Approved.INSTANCE));
+    assertEquals(Arrays.asList(order), orderRepository.ordersWith(Shipped.INSTANCE).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void streamsIdsInUnsignedOrder() {
+    final int[] ids = {Integer.MIN_VALUE, -1, 0, 5, 70_000, Integer.MAX_VALUE};
+    for (int id : ids) {
+      final Order order = anOrderWithId(id);
+      order.reject();
+      orderRepository.save(order);
+    }
+    assertEquals(Arrays.toString(new int[]{0, 5, 70_000, Integer.MAX_VALUE, Integer.MIN_VALUE, -1}),
+        Arrays.toString(orderRepository.orderIdsWith(Rejected.INSTANCE).toArray()));
+  }
+
+  @Test
+  public void streamsDenseAndSparseStatusesAcrossChunks() {
+    for (int id = 0; id < 20_000; id++) {
+      final Order order = anOrderWithId(id);
+      if (id % 3 != 0) {
+        order.approve();
+      }
+      orderRepository.save(order);
+    }
+    for (int id = 0; id < 20_000; id += 2) {
+      orderRepository.save(anOrderWithId(id));
+    }
+
+    final int[] expected = IntStream.range(0, 20_000).filter(id -> id % 2 != 0 && id % 3 != 0).toArray();
+    assertEquals(expected.length, orderRepository.countOf(Approved.INSTANCE));
+    assertTrue(Arrays.equals(expected, orderRepository.orderIdsWith(Approved.INSTANCE).toArray()));
+    assertEquals(20_000 - expected.length, orderRepository.orderIdsWith(Created.INSTANCE).count());
+  }
+
+  @Test(expected = UnknownOrderException.class)
+  public void unknownOrder() {
+    orderRepository.orderWith(1);
+  }
+
+  @Test
+  public void concurrentSavesAreAllVisible() throws Exception {
+    final int threads = 8;
+    final int ordersPerThread = 10_000;
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    final CountDownLatch start = new CountDownLatch(1);
+    for (int t = 0; t < threads; t++) {
+      final int firstId = t * ordersPerThread;
+      executor.execute(() -> {
+        awaitQuietly(start);
+        for (int id = firstId; id < firstId + ordersPerThread; id++) {
+          orderRepository.save(anOrderWithId(id));
+          orderRepository.orderWith(id);
+        }
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    executor.awaitTermination(30, TimeUnit.SECONDS);
+
+    assertEquals(threads * ordersPerThread, orderRepository.size());
+    for (int id = 0; id < threads * ordersPerThread; id++) {
+      assertEquals(id, orderRepository.orderWith(id).getId());
+    }
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import static java.util.Arrays.asList;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertSame;
+
+import it.gabrieletondi.telldontaskkata.domain.Money;
+import it.gabrieletondi.telldontaskkata.domain.OrderStatus;
+import it.gabrieletondi.telldontaskkata.domain.OrderWriter;
+import it.gabrieletondi.telldontaskkata.domain.Price;
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import it.gabrieletondi.telldontaskkata.domain.ProductInterner;
+import it.gabrieletondi.telldontaskkata.domain.Products;
+import it.gabrieletondi.telldontaskkata.useCase.creation.OrderCreationUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.creation.SellItemRequest;
+import it.gabrieletondi.telldontaskkata.useCase.creation.SellItemsRequest;
+import java.lang.ref.WeakReference;
+import java.math.BigDecimal;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class InterningProductCatalogTest {
+
+  private static final int ORDERS = 100;
+
+  /**
+   * Like a remote catalog, returns new copies of the products on every call.
+   */
+  private final ProductCatalog copyingCatalog = names -> new Products(names.stream()
+      .map(name -> new Product(name, new Price(new BigDecimal("3.56"), new BigDecimal("10"))))
+      .collect(Collectors.toList()));
+
+  private static InMemoryOrderRepository ordersCreatedWith(ProductCatalog catalog) {
+    final InMemoryOrderRepository orders = new InMemoryOrderRepository();
+    final OrderCreationUseCase creation = new OrderCreationUseCase(orders, catalog);
+    final SellItemsRequest request = new SellItemsRequest(
+        asList(new SellItemRequest("salad", 2), new SellItemRequest("tomato", 3)));
+    for (int i = 0; i < ORDERS; i++) {
+      creation.run(request);
+    }
+    return orders;
+  }
+
+  private static int distinctPriceInstancesIn(InMemoryOrderRepository orders) {
+    final Map<BigDecimal, Boolean> prices = new IdentityHashMap<>();
+    final OrderWriter writer = new OrderWriter() {
+      @Override
+      public void order(int id, OrderStatus status, String currency, Money total, Money tax, long version,
+          int items) {
+      }
+
+      @Override
+      public void item(String productName, BigDecimal price, BigDecimal taxPercentage, int quantity,
+          Money taxedAmount, Money taxAmount) {
+        prices.put(price, true);
+      }
+    };
+    for (int id = 1; id <= ORDERS; id++) {
+      orders.orderWith(id).writeTo(writer);
+    }
+    return prices.size();
+  }
+
+  @Test
+  public void ordersShareOneProductPerSku() {
+    assertEquals(2 * ORDERS, distinctPriceInstancesIn(ordersCreatedWith(copyingCatalog)));
+    assertEquals(2, distinctPriceInstancesIn(ordersCreatedWith(new InterningProductCatalog(copyingCatalog))));
+  }
+
+  @Test
+  public void returnsTheSameInstanceOfAProductOnEveryCall() {
+    final InterningProductCatalog catalog = new InterningProductCatalog(copyingCatalog);
+
+    final Products first = catalog.productsWith(asList("salad", "tomato"));
+    final Products second = catalog.productsWith(asList("tomato", "salad"));
+
+    assertSame(first.oneWithThe("salad"), second.oneWithThe("salad"));
+    assertSame(first.oneWithThe("tomato"), second.oneWithThe("tomato"));
+  }
+
+  @Test
+  public void returnsTheFirstInstanceOfEachProduct() {
+    final ProductInterner interner = new ProductInterner();
+    final Product salad = new Product("salad", new Price(new BigDecimal("3.56"), new BigDecimal("10")));
+    final Product repriced = new Product("salad", new Price(new BigDecimal("3.99"), new BigDecimal("10")));
+
+    assertSame(salad, interner.intern(salad));
+    assertSame(salad, interner.intern(new Product("salad", new Price(new BigDecimal("3.56"), new BigDecimal("10")))));
+    assertSame(repriced, interner.intern(repriced));
+    assertEquals(2, interner.size());
+  }
+
+  @Test
+  public void forgetsProductsNothingElseRefersTo() throws InterruptedException {
+    final ProductInterner interner = new ProductInterner();
+    final Product kept = interner.intern(new Product("kept", new Price(BigDecimal.ONE, BigDecimal.TEN)));
+    final WeakReference<Product> forgotten =
+        new WeakReference<>(interner.intern(new Product("forgotten", new Price(BigDecimal.ONE, BigDecimal.TEN))));
+
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (forgotten.get() != null && System.nanoTime() < deadline) {
+      System.gc();
+      Thread.sleep(10);
+    }
+
+    assertNull("nothing refers to the forgotten product", forgotten.get());
+    final Product again = new Product("forgotten", new Price(BigDecimal.ONE, BigDecimal.TEN));
+    assertSame(again, interner.intern(again));
+    assertSame(kept, interner.intern(new Product("kept", new Price(BigDecimal.ONE, BigDecimal.TEN))));
+  }
+}
@@ -0,0 +1,158 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class OrderIdGeneratorTest {
+
+  private static final Instant EPOCH = Instant.parse("2026-01-01T00:00:00Z");
+
+  private static Set<Integer> idsFromManyThreads(OrderIdGenerator generator, int threads, int idsPerThread)
+      throws InterruptedException {
+    final Set<Integer> ids = ConcurrentHashMap.newKeySet();
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    for (int t = 0; t < threads; t++) {
+      executor.execute(() -> {
+        for (int i = 0; i < idsPerThread; i++) {
+          ids.add(generator.nextId());
+        }
+      });
+    }
+    executor.shutdown();
+    executor.awaitTermination(30, TimeUnit.SECONDS);
+    return ids;
+  }
+
+  private static int maximumIdFromShortLivedThreads(OrderIdGenerator generator, int threads)
+      throws InterruptedException {
+    final AtomicInteger maximumId = new AtomicInteger();
+    for (int t = 0; t < threads; t++) {
+      final Thread thread = new Thread(() -> maximumId.accumulateAndGet(generator.nextId(), Math::max));
+      thread.start();
+      thread.join();
+    }
+    return maximumId.get();
+  }
+
+  @Test
+  public void sequentialIdsStartFromOne() {
+    final SequentialOrderIdGenerator generator = new SequentialOrderIdGenerator();
+    assertEquals(1, generator.nextId());
+    assertEquals(2, generator.nextId());
+  }
+
+  @Test
+  public void sequentialIdsAreUniqueAcrossThreads() throws Exception {
+    assertEquals(80_000, idsFromManyThreads(new SequentialOrderIdGenerator(), 8, 10_000).size());
+  }
+
+  @Test
+  public void blockIdsAreUniqueAcrossThreads() throws Exception {
+    assertEquals(80_000, idsFromManyThreads(new BlockOrderIdGenerator(1, 100), 8, 10_000).size());
+  }
+
+  @Test
+  public void threadsThatTakeOneIdEachShareBlocks() throws Exception {
+    final BlockOrderIdGenerator generator = new BlockOrderIdGenerator(1, 1000);
+
+    final int maximumId = maximumIdFromShortLivedThreads(generator, 100);
+
+    assertTrue(maximumId <= BlockOrderIdGenerator.STRIPES * 1000);
+  }
+
+  @Test
+  public void blockIdsAreConsecutiveWithinAThread() {
+    final BlockOrderIdGenerator generator = new BlockOrderIdGenerator(10, 2);
+    assertEquals(10, generator.nextId());
+    assertEquals(11, generator.nextId());
+    assertEquals(12, generator.nextId());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void blockIdsRunOut() {
+    final BlockOrderIdGenerator generator = new BlockOrderIdGenerator(Integer.MAX_VALUE, 10);
+    generator.nextId();
+    generator.nextId();
+  }
+
+  @Test
+  public void timeOrderedIdsStartAtTheCurrentSecond() {
+    final Clock clock = Clock.fixed(EPOCH.plusSeconds(3), ZoneOffset.UTC);
+    final TimeOrderedOrderIdGenerator generator = new TimeOrderedOrderIdGenerator(EPOCH, 4, clock);
+    assertEquals(3 << 4, generator.nextId());
+    assertEquals((3 << 4) + 1, generator.nextId());
+  }
+
+  @Test
+  public void timeOrderedIdsNeverGoBackwards() {
+    final Clock clock = Clock.fixed(EPOCH, ZoneOffset.UTC);
+    final TimeOrderedOrderIdGenerator generator = new TimeOrderedOrderIdGenerator(EPOCH, 2, clock);
+    int previous = -1;
+    for (int i = 0; i < 100; i++) {
+      final int id = generator.nextId();
+      assertTrue(id > previous);
+      previous = id;
+    }
+  }
+
+  @Test
+  public void timeOrderedIdsAreUniqueAcrossThreads() throws Exception {
+    final Clock clock = Clock.fixed(EPOCH, ZoneOffset.UTC);
+    assertEquals(80_000, idsFromManyThreads(new TimeOrderedOrderIdGenerator(EPOCH, 12, clock), 8, 10_000).size());
+  }
+
+  @Test
+  public void timeOrderedIdsOfShortLivedThreadsStayInTheCurrentSecond() throws Exception {
+    final Clock clock = Clock.fixed(EPOCH, ZoneOffset.UTC);
+    final TimeOrderedOrderIdGenerator generator = new TimeOrderedOrderIdGenerator(EPOCH, 12, clock);
+
+    assertTrue(maximumIdFromShortLivedThreads(generator, 100) < 1 << 12);
+  }
+
+  @Test
+  public void timeOrderedIdsLeaveAThreadsBlockOnceTheSecondMovesOn() {
+    final MovableClock clock = new MovableClock(EPOCH.plusSeconds(1));
+    final TimeOrderedOrderIdGenerator generator = new TimeOrderedOrderIdGenerator(EPOCH, 8, clock);
+    assertEquals(1 << 8, generator.nextId());
+
+    clock.now = EPOCH.plusSeconds(2);
+
+    assertEquals(2 << 8, generator.nextId());
+  }
+
+  private static final class MovableClock extends Clock {
+
+    private Instant now;
+
+    MovableClock(Instant now) {
+      this.now = now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
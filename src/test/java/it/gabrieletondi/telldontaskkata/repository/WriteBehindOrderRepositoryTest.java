@@ -0,0 +1,209 @@
+package it.gabrieletondi.telldontaskkata.repository;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+import it.gabrieletondi.telldontaskkata.domain.Approved;
+import it.gabrieletondi.telldontaskkata.domain.Created;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.OrderStatus;
+import it.gabrieletondi.telldontaskkata.domain.Rejected;
+import it.gabrieletondi.telldontaskkata.domain.Shipped;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.After;
+import org.junit.Test;
+
+public class WriteBehindOrderRepositoryTest {
+
+  private final List<Integer> batchSizes = new ArrayList<>();
+  private int failingWrites;
+  private final InMemoryOrderRepository delegate = new InMemoryOrderRepository() {
+    @Override
+    public void saveAllAtVersions(Collection<Order> orders) {
+      if (failingWrites > 0) {
+        failingWrites--;
+        throw new IllegalStateException("store is down");
+      }
+      batchSizes.add(orders.size());
+      super.saveAllAtVersions(orders);
+    }
+  };
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+  private final WriteBehindOrderRepository repository =
+      new WriteBehindOrderRepository(delegate, 3, Duration.ofHours(1), scheduler);
+
+  private static Order anOrderWith(int id, OrderStatus status) {
+    return new Order(id, status, new ArrayList<>(), "EUR", BigDecimal.ZERO, BigDecimal.ZERO);
+  }
+
+  @After
+  public void stopScheduler() {
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  public void readsItsOwnBufferedWrites() {
+    repository.save(anOrderWith(1, Approved.INSTANCE));
+
+    assertTrue(repository.orderWith(1).has(Approved.INSTANCE));
+    assertEquals(0, delegate.size());
+  }
+
+  @Test
+  public void collapsesSavesOfTheSameOrder() {
+    repository.save(anOrderWith(1, Created.INSTANCE));
+    repository.save(anOrderWith(1, Approved.INSTANCE));
+    repository.save(anOrderWith(1, Rejected.INSTANCE));
+
+    repository.flush();
+
+    assertEquals(1, batchSizes.size());
+    assertEquals(1, (int) batchSizes.get(0));
+    assertTrue(delegate.orderWith(1).has(Rejected.INSTANCE));
+  }
+
+  @Test
+  public void writesAFullBufferInOneBatch() {
+    for (int id = 1; id <= 3; id++) {
+      repository.save(anOrderWith(id, Created.INSTANCE));
+    }
+
+    assertEquals(0, repository.pendingCount());
+    assertEquals(1, batchSizes.size());
+    assertEquals(3, delegate.size());
+  }
+
+  @Test
+  public void writesABufferOnceItsDelayElapses() throws Exception {
+    final WriteBehindOrderRepository delayed =
+        new WriteBehindOrderRepository(delegate, 100, Duration.ofMillis(10), scheduler);
+    delayed.save(anOrderWith(1, Created.INSTANCE));
+
+    final long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+    while (delegate.size() == 0 && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+
+    assertEquals(1, delegate.size());
+  }
+
+  @Test
+  public void keepsTheBufferWhenTheDelegateFails() {
+    repository.save(anOrderWith(1, Approved.INSTANCE));
+    failingWrites = 1;
+
+    try {
+      repository.flush();
+      fail("flush swallowed the delegate's failure");
+    } catch (IllegalStateException expected) {
+      assertEquals(1, repository.pendingCount());
+    }
+    repository.flush();
+
+    assertEquals(0, repository.pendingCount());
+    assertTrue(delegate.orderWith(1).has(Approved.INSTANCE));
+  }
+
+  @Test
+  public void comparesAgainstTheLatestBufferedVersion() {
+    repository.save(anOrderWith(1, Created.INSTANCE));
+    final Order stale = anOrderWith(1, Created.INSTANCE);
+    repository.save(anOrderWith(1, Created.INSTANCE));
+    repository.flush();
+    final Order current = repository.orderWith(1);
+
+    current.approve();
+    stale.reject();
+
+    assertTrue(repository.compareAndSave(current));
+    assertFalse(repository.compareAndSave(stale));
+    assertTrue(repository.orderWith(1).has(Approved.INSTANCE));
+  }
+
+  @Test
+  public void comparesAgainstBufferedOrdersWithoutWritingThem() {
+    repository.save(anOrderWith(1, Created.INSTANCE));
+    final Order current = repository.orderWith(1);
+    final Order stale = repository.orderWith(1);
+
+    current.approve();
+    stale.reject();
+
+    assertTrue(repository.compareAndSave(current));
+    assertFalse(repository.compareAndSave(stale));
+    assertEquals(1, repository.pendingCount());
+    assertTrue(batchSizes.isEmpty());
+  }
+
+  @Test
+  public void keepsTheVersionsOfBufferedOrdersOnceWritten() {
+    repository.save(anOrderWith(1, Created.INSTANCE));
+    final Order approved = repository.orderWith(1);
+    approved.approve();
+    repository.compareAndSave(approved);
+    final Order beforeFlush = repository.orderWith(1);
+
+    repository.flush();
+
+    assertEquals(beforeFlush.getVersion(), delegate.orderWith(1).getVersion());
+    beforeFlush.ship();
+    assertTrue(repository.compareAndSave(beforeFlush));
+  }
+
+  @Test
+  public void writesAnOrderOnceForEveryChangeComparedSinceTheLastFlush() {
+    delegate.save(anOrderWith(1, Created.INSTANCE));
+    final Order approved = repository.orderWith(1);
+    approved.approve();
+    assertTrue(repository.compareAndSave(approved));
+    final Order shipped = repository.orderWith(1);
+    shipped.ship();
+    assertTrue(repository.compareAndSave(shipped));
+
+    repository.flush();
+
+    assertEquals(1, batchSizes.size());
+    assertEquals(1, (int) batchSizes.get(0));
+    assertTrue(delegate.orderWith(1).has(Shipped.INSTANCE));
+    assertEquals(3, delegate.orderWith(1).getVersion());
+  }
+
+  @Test
+  public void comparesOrdersThatAreNotBufferedAgainstTheDelegate() {
+    delegate.save(anOrderWith(1, Created.INSTANCE));
+    final Order stale = anOrderWith(1, Created.INSTANCE);
+    stale.approve();
+    final Order current = repository.orderWith(1);
+    current.reject();
+
+    assertFalse(repository.compareAndSave(stale));
+    assertTrue(repository.compareAndSave(current));
+    assertEquals(1, repository.pendingCount());
+    assertTrue(delegate.orderWith(1).has(Created.INSTANCE));
+  }
+
+  @Test
+  public void closingWritesTheBufferAndRefusesFurtherSaves() {
+    repository.save(anOrderWith(1, Created.INSTANCE));
+
+    repository.close();
+
+    assertEquals(1, delegate.size());
+    try {
+      repository.save(anOrderWith(2, Created.INSTANCE));
+    } catch (IllegalStateException expected) {
+      assertNull(delegate.ordersWith(new int[]{2}).get(0));
+      return;
+    }
+    throw new AssertionError("closed repository accepted a save");
+  }
+}
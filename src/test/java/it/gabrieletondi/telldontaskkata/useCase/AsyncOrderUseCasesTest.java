@@ -0,0 +1,172 @@
+package it.gabrieletondi.telldontaskkata.useCase;
+
+import static it.gabrieletondi.telldontaskkata.useCase.OrderBuilder.anOrder;
+import static it.gabrieletondi.telldontaskkata.useCase.OrderBuilder.anOrderId;
+import static java.util.Arrays.asList;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+import it.gabrieletondi.telldontaskkata.domain.Approved;
+import it.gabrieletondi.telldontaskkata.domain.Created;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.Price;
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import it.gabrieletondi.telldontaskkata.domain.Products;
+import it.gabrieletondi.telldontaskkata.domain.Rejected;
+import it.gabrieletondi.telldontaskkata.domain.Shipped;
+import it.gabrieletondi.telldontaskkata.domain.TransitionOutcome;
+import it.gabrieletondi.telldontaskkata.doubles.InMemoryProductCatalog;
+import it.gabrieletondi.telldontaskkata.repository.AsyncOrderRepository;
+import it.gabrieletondi.telldontaskkata.repository.AsyncProductCatalog;
+import it.gabrieletondi.telldontaskkata.repository.InMemoryOrderRepository;
+import it.gabrieletondi.telldontaskkata.service.AsyncShipmentService;
+import it.gabrieletondi.telldontaskkata.useCase.approval.ApproveOrderRequest;
+import it.gabrieletondi.telldontaskkata.useCase.approval.AsyncOrderApprovalUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.approval.invariants.RejectedOrderCannotBeApproved;
+import it.gabrieletondi.telldontaskkata.useCase.creation.AsyncOrderCreationUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.creation.SellItemRequest;
+import it.gabrieletondi.telldontaskkata.useCase.creation.SellItemsRequest;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.AsyncOrderShipmentUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentRequest;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class AsyncOrderUseCasesTest {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+  private final ScheduledExecutorService carrier = Executors.newSingleThreadScheduledExecutor();
+  private final InMemoryOrderRepository orderRepository = new InMemoryOrderRepository();
+  private final AsyncOrderRepository asyncOrderRepository = AsyncOrderRepository.over(orderRepository, executor);
+  private final AtomicInteger shipments = new AtomicInteger();
+
+  @After
+  public void stopExecutors() {
+    executor.shutdownNow();
+    carrier.shutdownNow();
+  }
+
+  @Test
+  public void createsOrders() throws Exception {
+    final Product salad = new Product("salad", new Price(new BigDecimal("3.56"), new BigDecimal("10")));
+    final AsyncOrderCreationUseCase creation = new AsyncOrderCreationUseCase(asyncOrderRepository,
+        AsyncProductCatalog.over(new InMemoryProductCatalog(new Products(asList(salad))), executor));
+
+    creation.run(new SellItemsRequest(Collections.singletonList(new SellItemRequest("salad", 2)))).get();
+
+    assertTrue(orderRepository.orderWith(1).has(Created.INSTANCE));
+  }
+
+  @Test
+  public void approvesOrders() throws Exception {
+    orderRepository.save(anOrder().withId(anOrderId).thatIsCreated().build());
+
+    new AsyncOrderApprovalUseCase(asyncOrderRepository).run(ApproveOrderRequest.forOrderWith(anOrderId)).get();
+
+    assertTrue(orderRepository.orderWith(anOrderId).has(Approved.INSTANCE));
+  }
+
+  @Test
+  public void failedTransitionsCompleteExceptionally() throws Exception {
+    orderRepository.save(anOrder().withId(anOrderId).thatIsRejected().build());
+
+    try {
+      new AsyncOrderApprovalUseCase(asyncOrderRepository).run(ApproveOrderRequest.forOrderWith(anOrderId)).get();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof RejectedOrderCannotBeApproved);
+      return;
+    }
+    throw new AssertionError("rejected order was approved");
+  }
+
+  @Test
+  public void reappliesTheTransitionToAConcurrentlyUpdatedOrder() throws Exception {
+    orderRepository.save(anOrder().withId(anOrderId).thatIsCreated().build());
+    final AsyncOrderRepository rejectedMeanwhile = new AsyncOrderRepository() {
+      @Override
+      public CompletableFuture<Void> save(Order order) {
+        return asyncOrderRepository.save(order);
+      }
+
+      @Override
+      public CompletableFuture<Order> orderWith(int orderId) {
+        return asyncOrderRepository.orderWith(orderId);
+      }
+
+      @Override
+      public CompletableFuture<Boolean> compareAndSave(Order order) {
+        final Order concurrent = orderRepository.orderWith(order.getId());
+        if (concurrent.has(Created.INSTANCE)) {
+          concurrent.reject();
+          orderRepository.save(concurrent);
+        }
+        return asyncOrderRepository.compareAndSave(order);
+      }
+    };
+
+    final TransitionOutcome outcome = new AsyncOrderApprovalUseCase(rejectedMeanwhile)
+        .tryRun(ApproveOrderRequest.forOrderWith(anOrderId)).get();
+
+    assertEquals(TransitionOutcome.REJECTED_ORDER_CANNOT_BE_APPROVED, outcome);
+    assertTrue(orderRepository.orderWith(anOrderId).has(Rejected.INSTANCE));
+  }
+
+  @Test
+  public void shipsOrdersWithoutBlockingOnTheCarrier() throws Exception {
+    orderRepository.save(anOrder().withId(anOrderId).thatIsApproved().build());
+
+    new AsyncOrderShipmentUseCase(asyncOrderRepository, this::shipLater)
+        .run(OrderShipmentRequest.forOrderWith(anOrderId)).get();
+
+    assertTrue(orderRepository.orderWith(anOrderId).has(Shipped.INSTANCE));
+    assertEquals(1, shipments.get());
+  }
+
+  @Test
+  public void ordersThatAreNotReadyAreNeverHandedToTheCarrier() throws Exception {
+    orderRepository.save(anOrder().withId(anOrderId).thatIsCreated().build());
+
+    final TransitionOutcome outcome = new AsyncOrderShipmentUseCase(asyncOrderRepository, this::shipLater)
+        .tryRun(OrderShipmentRequest.forOrderWith(anOrderId)).get();
+
+    assertEquals(TransitionOutcome.ORDER_NOT_READY_FOR_SHIPMENT, outcome);
+    assertEquals(0, shipments.get());
+  }
+
+  @Test
+  public void putsTheOrderBackWhenTheCarrierFailsAsynchronously() throws Exception {
+    orderRepository.save(anOrder().withId(anOrderId).thatIsApproved().build());
+    final IllegalStateException carrierDown = new IllegalStateException("carrier down");
+    final CompletableFuture<Void> failedShipment = new CompletableFuture<>();
+    failedShipment.completeExceptionally(carrierDown);
+
+    try {
+      new AsyncOrderShipmentUseCase(asyncOrderRepository, order -> failedShipment)
+          .run(OrderShipmentRequest.forOrderWith(anOrderId)).get();
+      fail("the carrier failure should propagate");
+    } catch (ExecutionException e) {
+      assertEquals(carrierDown, e.getCause());
+    }
+
+    assertTrue(orderRepository.orderWith(anOrderId).has(Approved.INSTANCE));
+  }
+
+  private CompletableFuture<Void> shipLater(Order order) {
+    final CompletableFuture<Void> shipped = new CompletableFuture<>();
+    carrier.schedule(() -> {
+      order.ship();
+      shipments.incrementAndGet();
+      shipped.complete(null);
+    }, 10, TimeUnit.MILLISECONDS);
+    return shipped;
+  }
+}
@@ -0,0 +1,95 @@
+package it.gabrieletondi.telldontaskkata.useCase;
+
+import static it.gabrieletondi.telldontaskkata.useCase.OrderBuilder.anOrder;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+import it.gabrieletondi.telldontaskkata.domain.Approved;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.Rejected;
+import it.gabrieletondi.telldontaskkata.repository.InMemoryOrderRepository;
+import it.gabrieletondi.telldontaskkata.useCase.approval.ApproveOrderRequest;
+import it.gabrieletondi.telldontaskkata.useCase.approval.OrderApprovalUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.approval.invariants.RejectedOrderCannotBeApproved;
+import it.gabrieletondi.telldontaskkata.useCase.rejection.RejectOrderRequest;
+import it.gabrieletondi.telldontaskkata.useCase.rejection.invariants.ApprovedOrderCannotBeRejected;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.After;
+import org.junit.Test;
+
+public class ConcurrentOrderApprovalTest {
+
+  private static final int ORDERS = 500;
+  private static final int THREADS = 8;
+
+  private final InMemoryOrderRepository orderRepository = new InMemoryOrderRepository();
+  private final OrderApprovalUseCase approval = new OrderApprovalUseCase(orderRepository, RetryPolicy.upTo(1_000));
+  private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+  private final CyclicBarrier everyThreadOnTheSameOrder = new CyclicBarrier(THREADS);
+  private final AtomicIntegerArray approvals = new AtomicIntegerArray(ORDERS);
+  private final AtomicIntegerArray rejections = new AtomicIntegerArray(ORDERS);
+
+  @After
+  public void stopExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void racingApprovalsAndRejectionsNeverLoseAnUpdate() throws Exception {
+    for (int id = 0; id < ORDERS; id++) {
+      orderRepository.save(anOrder().withId(id).thatIsCreated().build());
+    }
+    final List<Callable<Void>> threads = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      threads.add(t % 2 == 0 ? this::approveEveryOrder : this::rejectEveryOrder);
+    }
+
+    for (Future<Void> done : executor.invokeAll(threads)) {
+      done.get();
+    }
+
+    for (int id = 0; id < ORDERS; id++) {
+      final Order order = orderRepository.orderWith(id);
+      assertEquals(1 + approvals.get(id) + rejections.get(id), order.getVersion());
+      if (order.has(new Approved())) {
+        assertEquals(0, rejections.get(id));
+      } else {
+        assertTrue(order.has(new Rejected()));
+        assertEquals(0, approvals.get(id));
+      }
+    }
+  }
+
+  private Void approveEveryOrder() throws Exception {
+    for (int id = 0; id < ORDERS; id++) {
+      everyThreadOnTheSameOrder.await();
+      try {
+        approval.run(ApproveOrderRequest.forOrderWith(id));
+        approvals.incrementAndGet(id);
+      } catch (RejectedOrderCannotBeApproved lost) {
+        // the order was rejected first
+      }
+    }
+    return null;
+  }
+
+  private Void rejectEveryOrder() throws Exception {
+    for (int id = 0; id < ORDERS; id++) {
+      everyThreadOnTheSameOrder.await();
+      try {
+        approval.run(RejectOrderRequest.forOrderWith(id));
+        rejections.incrementAndGet(id);
+      } catch (ApprovedOrderCannotBeRejected lost) {
+        // the order was approved first
+      }
+    }
+    return null;
+  }
+}
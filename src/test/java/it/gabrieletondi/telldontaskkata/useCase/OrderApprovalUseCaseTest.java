@@ -2,8 +2,10 @@ package it.gabrieletondi.telldontaskkata.useCase;
 
 import static it.gabrieletondi.telldontaskkata.useCase.OrderBuilder.anOrder;
 import static it.gabrieletondi.telldontaskkata.useCase.OrderBuilder.anOrderId;
+import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
 
+import it.gabrieletondi.telldontaskkata.domain.TransitionOutcome;
 import it.gabrieletondi.telldontaskkata.doubles.TestOrderRepository;
 import it.gabrieletondi.telldontaskkata.useCase.approval.ApproveOrderRequest;
 import it.gabrieletondi.telldontaskkata.useCase.approval.OrderApprovalUseCase;
@@ -60,4 +62,12 @@ public class OrderApprovalUseCaseTest {
     approval.run(RejectOrderRequest.forOrderWith(anOrderId));
     assertTrue(orderRepository.orderIsNotSaved());
   }
+
+  @Test
+  public void invalidTransitionsCanBeReportedWithoutThrowing() throws Exception {
+    orderRepository.add(anOrder().withId(anOrderId).thatIsShipped().build());
+    assertEquals(TransitionOutcome.SHIPPED_ORDERS_CANNOT_BE_APPROVED,
+        approval.tryRun(ApproveOrderRequest.forOrderWith(anOrderId)));
+    assertTrue(orderRepository.orderIsNotSaved());
+  }
 }
@@ -0,0 +1,127 @@
+package it.gabrieletondi.telldontaskkata.useCase;
+
+import static it.gabrieletondi.telldontaskkata.useCase.OrderBuilder.anOrder;
+import static java.util.Arrays.asList;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import it.gabrieletondi.telldontaskkata.domain.Approved;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.Rejected;
+import it.gabrieletondi.telldontaskkata.repository.InMemoryOrderRepository;
+import it.gabrieletondi.telldontaskkata.useCase.approval.ApproveOrderRequest;
+import it.gabrieletondi.telldontaskkata.useCase.approval.OrderApprovalResult;
+import it.gabrieletondi.telldontaskkata.useCase.approval.OrderApprovalUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.approval.invariants.RejectedOrderCannotBeApproved;
+import it.gabrieletondi.telldontaskkata.useCase.rejection.RejectOrderRequest;
+import it.gabrieletondi.telldontaskkata.useCase.rejection.invariants.ApprovedOrderCannotBeRejected;
+import java.util.List;
+import org.junit.Test;
+
+public class OrderBatchApprovalTest {
+
+  private final InMemoryOrderRepository orderRepository = new InMemoryOrderRepository();
+  private final OrderApprovalUseCase approval = new OrderApprovalUseCase(orderRepository);
+
+  @Test
+  public void approvesAndRejectsEveryOrderOfTheBatch() {
+    orderRepository.save(anOrder().withId(1).thatIsCreated().build());
+    orderRepository.save(anOrder().withId(2).thatIsCreated().build());
+
+    final List<OrderApprovalResult> results = approval.runAll(
+        asList(ApproveOrderRequest.forOrderWith(1), RejectOrderRequest.forOrderWith(2)));
+
+    assertTrue(results.get(0).isSuccessful());
+    assertTrue(results.get(1).isSuccessful());
+    assertTrue(orderRepository.orderWith(1).has(new Approved()));
+    assertTrue(orderRepository.orderWith(2).has(new Rejected()));
+  }
+
+  @Test
+  public void reportsInvariantViolationsWithoutAbortingTheBatch() {
+    orderRepository.save(anOrder().withId(1).thatIsRejected().build());
+    orderRepository.save(anOrder().withId(2).thatIsCreated().build());
+
+    final List<OrderApprovalResult> results = approval.runAll(
+        asList(ApproveOrderRequest.forOrderWith(1), ApproveOrderRequest.forOrderWith(2)));
+
+    assertFalse(results.get(0).isSuccessful());
+    assertTrue(results.get(0).getFailure() instanceof RejectedOrderCannotBeApproved);
+    assertTrue(results.get(1).isSuccessful());
+    assertTrue(orderRepository.orderWith(1).has(new Rejected()));
+    assertTrue(orderRepository.orderWith(2).has(new Approved()));
+  }
+
+  @Test
+  public void reportsUnknownOrders() {
+    final List<OrderApprovalResult> results = approval.runAll(asList(ApproveOrderRequest.forOrderWith(3)));
+
+    assertEquals(3, results.get(0).getOrderId());
+    assertTrue(results.get(0).getFailure() instanceof UnknownOrderException);
+  }
+
+  @Test
+  public void requestsForTheSameOrderApplyInBatchOrder() {
+    orderRepository.save(anOrder().withId(1).thatIsCreated().build());
+
+    final List<OrderApprovalResult> results = approval.runAll(
+        asList(ApproveOrderRequest.forOrderWith(1), RejectOrderRequest.forOrderWith(1)));
+
+    assertTrue(results.get(0).isSuccessful());
+    assertTrue(results.get(1).getFailure() instanceof ApprovedOrderCannotBeRejected);
+    assertTrue(orderRepository.orderWith(1).has(new Approved()));
+    assertEquals(2, orderRepository.orderWith(1).getVersion());
+  }
+
+  @Test
+  public void doesNotOverwriteAnOrderApprovedSinceItWasRead() {
+    final InMemoryOrderRepository racingRepository = new InMemoryOrderRepository() {
+      private boolean raced;
+
+      @Override
+      public List<Order> ordersWith(int[] orderIds) {
+        final List<Order> orders = super.ordersWith(orderIds);
+        if (!raced) {
+          raced = true;
+          final Order concurrentlyApproved = orderWith(1);
+          concurrentlyApproved.approve();
+          compareAndSave(concurrentlyApproved);
+        }
+        return orders;
+      }
+    };
+    racingRepository.save(anOrder().withId(1).thatIsCreated().build());
+
+    final List<OrderApprovalResult> results = new OrderApprovalUseCase(racingRepository)
+        .runAll(asList(RejectOrderRequest.forOrderWith(1)));
+
+    assertTrue(results.get(0).getFailure() instanceof ApprovedOrderCannotBeRejected);
+    assertTrue(racingRepository.orderWith(1).has(new Approved()));
+  }
+
+  @Test
+  public void appliesRequestsAgainToAnOrderChangedSinceItWasRead() {
+    final InMemoryOrderRepository racingRepository = new InMemoryOrderRepository() {
+      private boolean raced;
+
+      @Override
+      public List<Order> ordersWith(int[] orderIds) {
+        final List<Order> orders = super.ordersWith(orderIds);
+        if (!raced) {
+          raced = true;
+          save(orderWith(1));
+        }
+        return orders;
+      }
+    };
+    racingRepository.save(anOrder().withId(1).thatIsCreated().build());
+
+    final List<OrderApprovalResult> results = new OrderApprovalUseCase(racingRepository)
+        .runAll(asList(ApproveOrderRequest.forOrderWith(1)));
+
+    assertTrue(results.get(0).isSuccessful());
+    assertTrue(racingRepository.orderWith(1).has(new Approved()));
+    assertEquals(3, racingRepository.orderWith(1).getVersion());
+  }
+}
@@ -0,0 +1,246 @@
+package it.gabrieletondi.telldontaskkata.useCase;
+
+import static it.gabrieletondi.telldontaskkata.useCase.OrderBuilder.anOrder;
+import static java.util.Arrays.asList;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+import it.gabrieletondi.telldontaskkata.domain.Approved;
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.Shipped;
+import it.gabrieletondi.telldontaskkata.repository.InMemoryOrderRepository;
+import it.gabrieletondi.telldontaskkata.service.ShipmentService;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.BatchingShipmentPipeline;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentRequest;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentResult;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.invariants.OrderCannotBeShippedTwice;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.invariants.OrderNotReadyForShippment;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+public class OrderBatchShipmentTest {
+
+  private final InMemoryOrderRepository orderRepository = new InMemoryOrderRepository();
+  private final ManifestShipmentService shipmentService = new ManifestShipmentService();
+  private final OrderShipmentUseCase shipment = new OrderShipmentUseCase(orderRepository, shipmentService);
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+  @After
+  public void stopScheduler() {
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  public void shipsEveryOrderOfTheBatchInOneManifest() {
+    orderRepository.save(anOrder().withId(1).thatIsApproved().build());
+    orderRepository.save(anOrder().withId(2).thatIsApproved().build());
+
+    final List<OrderShipmentResult> results = shipment.runAll(
+        asList(OrderShipmentRequest.forOrderWith(1), OrderShipmentRequest.forOrderWith(2)));
+
+    assertTrue(results.get(0).isSuccessful());
+    assertTrue(results.get(1).isSuccessful());
+    assertEquals(1, shipmentService.manifests.size());
+    assertEquals(2, shipmentService.manifests.get(0).size());
+    assertTrue(orderRepository.orderWith(1).has(Shipped.INSTANCE));
+    assertTrue(orderRepository.orderWith(2).has(Shipped.INSTANCE));
+  }
+
+  @Test
+  public void reportsOrdersThatCannotBeShippedWithoutAbortingTheBatch() {
+    orderRepository.save(anOrder().withId(1).thatIsCreated().build());
+    orderRepository.save(anOrder().withId(2).thatIsApproved().build());
+
+    final List<OrderShipmentResult> results = shipment.runAll(asList(OrderShipmentRequest.forOrderWith(1),
+        OrderShipmentRequest.forOrderWith(2), OrderShipmentRequest.forOrderWith(2),
+        OrderShipmentRequest.forOrderWith(3)));
+
+    assertTrue(results.get(0).getFailure() instanceof OrderNotReadyForShippment);
+    assertTrue(results.get(1).isSuccessful());
+    assertTrue(results.get(2).getFailure() instanceof OrderCannotBeShippedTwice);
+    assertTrue(results.get(3).getFailure() instanceof UnknownOrderException);
+    assertEquals(1, shipmentService.manifests.get(0).size());
+    assertTrue(orderRepository.orderWith(2).has(Shipped.INSTANCE));
+  }
+
+  @Test
+  public void aFailedManifestLeavesItsOrdersUnshipped() {
+    orderRepository.save(anOrder().withId(1).thatIsApproved().build());
+    final IllegalStateException carrierDown = new IllegalStateException();
+
+    final List<OrderShipmentResult> results = new OrderShipmentUseCase(orderRepository, order -> {
+      throw carrierDown;
+    }).runAll(asList(OrderShipmentRequest.forOrderWith(1)));
+
+    assertFalse(results.get(0).isSuccessful());
+    assertEquals(carrierDown, results.get(0).getFailure());
+    assertTrue(orderRepository.orderWith(1).has(Approved.INSTANCE));
+  }
+
+  @Test
+  public void pipelineShipsAFullBatchAtOnce() throws Exception {
+    final BatchingShipmentPipeline pipeline =
+        new BatchingShipmentPipeline(shipment, 3, Duration.ofHours(1), scheduler);
+    final List<CompletableFuture<OrderShipmentResult>> results = new ArrayList<>();
+    for (int id = 1; id <= 3; id++) {
+      orderRepository.save(anOrder().withId(id).thatIsApproved().build());
+      results.add(pipeline.submit(OrderShipmentRequest.forOrderWith(id)));
+    }
+
+    for (CompletableFuture<OrderShipmentResult> result : results) {
+      assertTrue(result.get().isSuccessful());
+    }
+    assertEquals(1, shipmentService.manifests.size());
+  }
+
+  @Test
+  public void pipelineShipsAPartialBatchOnceItsDelayElapses() throws Exception {
+    final BatchingShipmentPipeline pipeline =
+        new BatchingShipmentPipeline(shipment, 100, Duration.ofMillis(20), scheduler);
+    orderRepository.save(anOrder().withId(1).thatIsApproved().build());
+
+    assertTrue(pipeline.submit(OrderShipmentRequest.forOrderWith(1)).get().isSuccessful());
+    assertTrue(orderRepository.orderWith(1).has(Shipped.INSTANCE));
+  }
+
+  @Test
+  public void closingThePipelineShipsWhatIsPending() throws Exception {
+    final BatchingShipmentPipeline pipeline =
+        new BatchingShipmentPipeline(shipment, 100, Duration.ofHours(1), scheduler);
+    orderRepository.save(anOrder().withId(1).thatIsApproved().build());
+    final CompletableFuture<OrderShipmentResult> result = pipeline.submit(OrderShipmentRequest.forOrderWith(1));
+
+    pipeline.close();
+
+    assertTrue(result.isDone());
+    assertTrue(result.get().isSuccessful());
+  }
+
+  @Test
+  public void doesNotShipAnOrderSavedAsShippedSinceItWasRead() {
+    final InMemoryOrderRepository racingRepository = new InMemoryOrderRepository() {
+      private boolean raced;
+
+      @Override
+      public List<Order> ordersWith(int[] orderIds) {
+        final List<Order> orders = super.ordersWith(orderIds);
+        if (!raced) {
+          raced = true;
+          final Order shippedMeanwhile = orderWith(2);
+          shippedMeanwhile.ship();
+          compareAndSave(shippedMeanwhile);
+        }
+        return orders;
+      }
+    };
+    racingRepository.save(anOrder().withId(1).thatIsApproved().build());
+    racingRepository.save(anOrder().withId(2).thatIsApproved().build());
+
+    final List<OrderShipmentResult> results = new OrderShipmentUseCase(racingRepository, shipmentService)
+        .runAll(asList(OrderShipmentRequest.forOrderWith(1), OrderShipmentRequest.forOrderWith(2)));
+
+    assertTrue(results.get(0).isSuccessful());
+    assertTrue(results.get(1).getFailure() instanceof OrderCannotBeShippedTwice);
+    assertEquals(1, shipmentService.manifests.get(0).size());
+    assertEquals(1, shipmentService.manifests.get(0).get(0).getId());
+  }
+
+  @Test
+  public void pipelineHoldsBackRequestsForOrdersBeingShipped() throws Exception {
+    final CountDownLatch carrierCalled = new CountDownLatch(1);
+    final CountDownLatch carrierMayReturn = new CountDownLatch(1);
+    final List<Collection<Order>> manifests = new ArrayList<>();
+    final ShipmentService slowCarrier = new ShipmentService() {
+      @Override
+      public void ship(Order order) {
+        shipAll(asList(order));
+      }
+
+      @Override
+      public void shipAll(Collection<Order> orders) {
+        manifests.add(orders);
+        carrierCalled.countDown();
+        try {
+          carrierMayReturn.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    };
+    final BatchingShipmentPipeline pipeline = new BatchingShipmentPipeline(
+        new OrderShipmentUseCase(orderRepository, slowCarrier), 1, Duration.ofHours(1), scheduler);
+    orderRepository.save(anOrder().withId(1).thatIsApproved().build());
+    final CompletableFuture<OrderShipmentResult> first =
+        CompletableFuture.supplyAsync(() -> pipeline.submit(OrderShipmentRequest.forOrderWith(1)).join());
+    carrierCalled.await(5, TimeUnit.SECONDS);
+
+    final CompletableFuture<OrderShipmentResult> second = pipeline.submit(OrderShipmentRequest.forOrderWith(1));
+    assertFalse(second.isDone());
+    carrierMayReturn.countDown();
+
+    assertTrue(first.get(5, TimeUnit.SECONDS).isSuccessful());
+    assertTrue(second.get(5, TimeUnit.SECONDS).getFailure() instanceof OrderCannotBeShippedTwice);
+    assertEquals(1, manifests.size());
+  }
+
+  @Test
+  public void pipelineShipsAtOnceWhenTheSchedulerRefusesToWait() throws Exception {
+    scheduler.shutdown();
+    final BatchingShipmentPipeline pipeline =
+        new BatchingShipmentPipeline(shipment, 100, Duration.ofHours(1), scheduler);
+    orderRepository.save(anOrder().withId(1).thatIsApproved().build());
+
+    final CompletableFuture<OrderShipmentResult> result = pipeline.submit(OrderShipmentRequest.forOrderWith(1));
+
+    assertTrue(result.isDone());
+    assertTrue(result.get().isSuccessful());
+  }
+
+  @Test
+  public void anErrorOfTheCarrierFailsEveryRequestOfTheManifest() {
+    final ShipmentService brokenCarrier = new ManifestShipmentService() {
+      @Override
+      public void shipAll(Collection<Order> orders) {
+        throw new LinkageError("carrier client is broken");
+      }
+    };
+    final BatchingShipmentPipeline pipeline = new BatchingShipmentPipeline(
+        new OrderShipmentUseCase(orderRepository, brokenCarrier), 100, Duration.ofHours(1), scheduler);
+    orderRepository.save(anOrder().withId(1).thatIsApproved().build());
+    final CompletableFuture<OrderShipmentResult> result = pipeline.submit(OrderShipmentRequest.forOrderWith(1));
+
+    try {
+      pipeline.close();
+      fail("the carrier's error should propagate");
+    } catch (LinkageError expected) {
+      assertTrue(result.isCompletedExceptionally());
+    }
+  }
+
+  private static class ManifestShipmentService implements ShipmentService {
+
+    private final List<List<Order>> manifests = new ArrayList<>();
+
+    @Override
+    public void ship(Order order) {
+      shipAll(asList(order));
+    }
+
+    @Override
+    public void shipAll(Collection<Order> orders) {
+      manifests.add(new ArrayList<>(orders));
+    }
+  }
+}
@@ -3,6 +3,7 @@ package it.gabrieletondi.telldontaskkata.useCase;
 import static it.gabrieletondi.telldontaskkata.useCase.OrderBuilder.anOrder;
 import static it.gabrieletondi.telldontaskkata.useCase.OrderItemBuilder.anOrderItem;
 import static java.util.Arrays.asList;
+import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
 
 import it.gabrieletondi.telldontaskkata.domain.Category;
@@ -14,12 +15,14 @@ import it.gabrieletondi.telldontaskkata.domain.Product;
 import it.gabrieletondi.telldontaskkata.domain.Products;
 import it.gabrieletondi.telldontaskkata.doubles.InMemoryProductCatalog;
 import it.gabrieletondi.telldontaskkata.doubles.TestOrderRepository;
+import it.gabrieletondi.telldontaskkata.repository.InMemoryOrderRepository;
 import it.gabrieletondi.telldontaskkata.repository.ProductCatalog;
 import it.gabrieletondi.telldontaskkata.useCase.creation.OrderCreationUseCase;
 import it.gabrieletondi.telldontaskkata.useCase.creation.SellItemRequest;
 import it.gabrieletondi.telldontaskkata.useCase.creation.SellItemsRequest;
 import it.gabrieletondi.telldontaskkata.useCase.creation.UnknownProductException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import org.junit.Test;
@@ -84,4 +87,60 @@ public class OrderCreationUseCaseTest {
 
     assertTrue(orderRepository.savedOrderMatches(expectedOrder));
   }
+
+  @Test
+  public void eachOrderGetsItsOwnId() throws Exception {
+    final InMemoryOrderRepository orders = new InMemoryOrderRepository();
+    final OrderCreationUseCase creation = new OrderCreationUseCase(orders, productCatalog);
+    final SellItemsRequest request = new SellItemsRequest(asList(new SellItemRequest(SALAD, saladQuantity)));
+
+    creation.run(request);
+    creation.run(request);
+
+    assertEquals(2, orders.size());
+    assertEquals(1, orders.orderWith(1).getId());
+    assertEquals(2, orders.orderWith(2).getId());
+  }
+
+  @Test
+  public void mergesLinesOfTheSameProduct() throws Exception {
+    final List<String> lookedUp = new ArrayList<>();
+    final ProductCatalog recordingCatalog = names -> {
+      lookedUp.addAll(names);
+      return productCatalog.productsWith(names);
+    };
+    final OrderCreationUseCase creation = new OrderCreationUseCase(orderRepository, recordingCatalog);
+
+    creation.run(new SellItemsRequest(asList(
+        new SellItemRequest(SALAD, 2), new SellItemRequest(TOMATO, 3), new SellItemRequest(SALAD, 1))));
+
+    final Order expectedOrder = anOrder().withId(1).thatIs(new Created()).inCurrency("EUR")
+        .having(orderItems(saladItem(3, "11.76", "1.08"), tomatoItem(3, "15.36", "1.41")))
+        .inTotalOf("27.12").outOfWhichTaxIs("2.49")
+        .build();
+    assertTrue(orderRepository.savedOrderMatches(expectedOrder));
+    assertEquals(asList(SALAD, TOMATO), lookedUp);
+  }
+
+  @Test
+  public void keepsEveryLineWhenAsked() throws Exception {
+    orderCreation.run(SellItemsRequest.withEveryLine(asList(
+        new SellItemRequest(SALAD, 2), new SellItemRequest(TOMATO, 3), new SellItemRequest(SALAD, 1))));
+
+    final Order expectedOrder = anOrder().withId(1).thatIs(new Created()).inCurrency("EUR")
+        .having(orderItems(saladItem(2, "7.84", "0.72"), tomatoItem(3, "15.36", "1.41"), saladItem(1, "3.92", "0.36")))
+        .inTotalOf("27.12").outOfWhichTaxIs("2.49")
+        .build();
+    assertTrue(orderRepository.savedOrderMatches(expectedOrder));
+  }
+
+  private OrderItem saladItem(int quantity, String taxedAmount, String taxAmount) {
+    return anOrderItem().forProductWithName(SALAD).withPriceOf("3.56").havingTaxPercentageOf(foodTaxPercentage)
+        .forQuantityOf(quantity).withTaxedAmount(taxedAmount).withTaxAmount(taxAmount).build();
+  }
+
+  private OrderItem tomatoItem(int quantity, String taxedAmount, String taxAmount) {
+    return anOrderItem().forProductWithName(TOMATO).withPriceOf("4.65").havingTaxPercentageOf(foodTaxPercentage)
+        .forQuantityOf(quantity).withTaxedAmount(taxedAmount).withTaxAmount(taxAmount).build();
+  }
 }
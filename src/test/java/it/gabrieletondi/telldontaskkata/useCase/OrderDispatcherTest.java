@@ -0,0 +1,95 @@
+package it.gabrieletondi.telldontaskkata.useCase;
+
+import static it.gabrieletondi.telldontaskkata.useCase.OrderBuilder.anOrder;
+import static it.gabrieletondi.telldontaskkata.useCase.OrderBuilder.anOrderId;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.Products;
+import it.gabrieletondi.telldontaskkata.domain.Shipped;
+import it.gabrieletondi.telldontaskkata.domain.TransitionOutcome;
+import it.gabrieletondi.telldontaskkata.doubles.InMemoryProductCatalog;
+import it.gabrieletondi.telldontaskkata.repository.InMemoryOrderRepository;
+import it.gabrieletondi.telldontaskkata.useCase.approval.ApproveOrderRequest;
+import it.gabrieletondi.telldontaskkata.useCase.approval.OrderApprovalUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.creation.OrderCreationUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.dispatch.OrderDispatcher;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentRequest;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentUseCase;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class OrderDispatcherTest {
+
+  private static final int REQUESTS = 200;
+
+  private final AtomicInteger versionConflicts = new AtomicInteger();
+  private final InMemoryOrderRepository orderRepository = new InMemoryOrderRepository() {
+    @Override
+    public boolean compareAndSave(Order order) {
+      final boolean saved = super.compareAndSave(order);
+      if (!saved) {
+        versionConflicts.incrementAndGet();
+      }
+      return saved;
+    }
+  };
+  private final OrderDispatcher dispatcher = new OrderDispatcher(
+      new OrderCreationUseCase(orderRepository, new InMemoryProductCatalog(new Products(Collections.emptyList()))),
+      new OrderApprovalUseCase(orderRepository),
+      new OrderShipmentUseCase(orderRepository, Order::ship),
+      Executors.newFixedThreadPool(8));
+
+  @After
+  public void closeDispatcher() throws Exception {
+    dispatcher.close();
+  }
+
+  @Test
+  public void requestsForTheSameOrderNeverRunConcurrently() throws Exception {
+    orderRepository.save(anOrder().withId(anOrderId).thatIsCreated().build());
+    final List<CompletableFuture<TransitionOutcome>> approvals = new ArrayList<>();
+    for (int i = 0; i < REQUESTS; i++) {
+      approvals.add(dispatcher.submit(ApproveOrderRequest.forOrderWith(anOrderId)));
+    }
+
+    for (CompletableFuture<TransitionOutcome> approval : approvals) {
+      assertEquals(TransitionOutcome.APPLIED, approval.get());
+    }
+    assertEquals(0, versionConflicts.get());
+    assertEquals(1 + REQUESTS, orderRepository.orderWith(anOrderId).getVersion());
+  }
+
+  @Test
+  public void anOrderIsShippedOnceWhateverTheNumberOfRequests() throws Exception {
+    orderRepository.save(anOrder().withId(anOrderId).thatIsApproved().build());
+    final List<CompletableFuture<TransitionOutcome>> shipments = new ArrayList<>();
+    for (int i = 0; i < REQUESTS; i++) {
+      shipments.add(dispatcher.submit(OrderShipmentRequest.forOrderWith(anOrderId)));
+    }
+
+    int shipped = 0;
+    for (CompletableFuture<TransitionOutcome> shipment : shipments) {
+      shipped += shipment.get().isApplied() ? 1 : 0;
+    }
+    assertEquals(1, shipped);
+    assertTrue(orderRepository.orderWith(anOrderId).has(Shipped.INSTANCE));
+  }
+
+  @Test
+  public void virtualThreadDispatchFallsBackToPlatformThreads() throws Exception {
+    orderRepository.save(anOrder().withId(anOrderId).thatIsApproved().build());
+    try (OrderDispatcher onVirtualThreads = OrderDispatcher.onVirtualThreads(
+        null, new OrderApprovalUseCase(orderRepository), new OrderShipmentUseCase(orderRepository, Order::ship))) {
+      assertEquals(TransitionOutcome.APPLIED,
+          onVirtualThreads.submit(OrderShipmentRequest.forOrderWith(anOrderId)).get());
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package it.gabrieletondi.telldontaskkata.useCase;
+
+import static java.util.Arrays.asList;
+import static junit.framework.TestCase.assertEquals;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.Price;
+import it.gabrieletondi.telldontaskkata.domain.Product;
+import it.gabrieletondi.telldontaskkata.domain.Products;
+import it.gabrieletondi.telldontaskkata.doubles.InMemoryProductCatalog;
+import it.gabrieletondi.telldontaskkata.repository.InMemoryOrderRepository;
+import it.gabrieletondi.telldontaskkata.repository.ProductCatalog;
+import it.gabrieletondi.telldontaskkata.repository.SequentialOrderIdGenerator;
+import it.gabrieletondi.telldontaskkata.useCase.creation.ImportFormat;
+import it.gabrieletondi.telldontaskkata.useCase.creation.IngestionReport;
+import it.gabrieletondi.telldontaskkata.useCase.creation.OrderIngestionPipeline;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class OrderIngestionPipelineTest {
+
+  private final Product salad = new Product("salad", new Price(new BigDecimal("3.56"), new BigDecimal("10")));
+  private final Product tomato = new Product("tomato", new Price(new BigDecimal("4.65"), new BigDecimal("10")));
+  private final AtomicInteger catalogCalls = new AtomicInteger();
+  private final ProductCatalog catalog = new CountingCatalog(new InMemoryProductCatalog(
+      new Products(asList(salad, tomato))), catalogCalls);
+  private final InMemoryOrderRepository orderRepository = new InMemoryOrderRepository();
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private final StringWriter rejects = new StringWriter();
+
+  @After
+  public void stopExecutor() {
+    executor.shutdownNow();
+  }
+
+  private OrderIngestionPipeline pipelineWithBatchesOf(int batchSize) {
+    return new OrderIngestionPipeline(orderRepository, catalog, new SequentialOrderIdGenerator(), executor,
+        batchSize, 1);
+  }
+
+  private static Order anOrder(int id, Object... productsAndQuantities) {
+    final Order order = Order.withoutOrderItems(id);
+    for (int i = 0; i < productsAndQuantities.length; i += 2) {
+      order.add((Product) productsAndQuantities[i], (Integer) productsAndQuantities[i + 1]);
+    }
+    return order;
+  }
+
+  @Test
+  public void createsOneOrderPerRunOfLinesWithTheSameReference() {
+    final String csv = "A,salad,2\nA,tomato,3\nB,tomato,1\n\nC,salad,1\n";
+
+    final IngestionReport report = pipelineWithBatchesOf(2).ingest(new StringReader(csv), ImportFormat.CSV, rejects);
+
+    assertEquals(3, report.getCreatedOrders());
+    assertEquals(anOrder(1, salad, 2, tomato, 3), orderRepository.orderWith(1));
+    assertEquals(anOrder(2, tomato, 1), orderRepository.orderWith(2));
+    assertEquals(anOrder(3, salad, 1), orderRepository.orderWith(3));
+    assertEquals(2, catalogCalls.get());
+    assertEquals("", rejects.toString());
+  }
+
+  @Test
+  public void rejectsOnlyTheOrdersWithUnknownProducts() {
+    final String csv = "A,salad,2\nB,salad,1\nB,caviar,1\nC,tomato,1\n";
+
+    final IngestionReport report = pipelineWithBatchesOf(10).ingest(new StringReader(csv), ImportFormat.CSV, rejects);
+
+    assertEquals(2, report.getCreatedOrders());
+    assertEquals(1, report.getUnknownProductRejects());
+    assertEquals(anOrder(2, tomato, 1), orderRepository.orderWith(2));
+    assertEquals("B,salad,1\nB,caviar,1\n", rejects.toString());
+    assertEquals(2, catalogCalls.get());
+  }
+
+  @Test
+  public void rejectsWholeOrdersWithMalformedLines() {
+    final String csv = "A,salad,2\nA,salad\nA,tomato,1\nB,tomato,many\n,salad\nC,tomato,1\n";
+
+    final IngestionReport report = pipelineWithBatchesOf(10).ingest(new StringReader(csv), ImportFormat.CSV, rejects);
+
+    assertEquals(1, report.getCreatedOrders());
+    assertEquals(3, report.getMalformedRejects());
+    assertEquals("A,salad,2\nA,salad\nA,tomato,1\nB,tomato,many\n,salad\n", rejects.toString());
+    assertEquals(1, orderRepository.size());
+    assertEquals(anOrder(1, tomato, 1), orderRepository.orderWith(1));
+  }
+
+  @Test
+  public void readsNdjson() {
+    final String ndjson = "{\"order\": 7, \"productName\": \"sal\\u0061d\", \"quantity\": 2}\n"
+        + "{\"quantity\":1,\"productName\":\"tomato\",\"order\":7}\n"
+        + "{\"order\": \"8\", \"productName\": \"tomato\"\n";
+
+    final IngestionReport report = pipelineWithBatchesOf(10).ingest(new StringReader(ndjson), ImportFormat.NDJSON,
+        rejects);
+
+    assertEquals(1, report.getCreatedOrders());
+    assertEquals(1, report.getMalformedRejects());
+    assertEquals(anOrder(1, salad, 2, tomato, 1), orderRepository.orderWith(1));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void stopsReadingWhenSavingFails() {
+    final StringBuilder csv = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      csv.append(i).append(",salad,1\n");
+    }
+    final InMemoryOrderRepository failing = new InMemoryOrderRepository() {
+      @Override
+      public void saveAll(Collection<Order> orders) {
+        throw new IllegalStateException("disk full");
+      }
+    };
+    new OrderIngestionPipeline(failing, catalog, new SequentialOrderIdGenerator(), executor, 10, 1)
+        .ingest(new StringReader(csv.toString()), ImportFormat.CSV, rejects);
+  }
+
+  private static final class CountingCatalog implements ProductCatalog {
+
+    private final ProductCatalog delegate;
+    private final AtomicInteger calls;
+
+    CountingCatalog(ProductCatalog delegate, AtomicInteger calls) {
+      this.delegate = delegate;
+      this.calls = calls;
+    }
+
+    @Override
+    public Products productsWith(List<String> productNames) {
+      calls.incrementAndGet();
+      return delegate.productsWith(productNames);
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package it.gabrieletondi.telldontaskkata.useCase;
+
+import static it.gabrieletondi.telldontaskkata.useCase.OrderBuilder.anOrder;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.Shipped;
+import it.gabrieletondi.telldontaskkata.domain.TransitionOutcome;
+import it.gabrieletondi.telldontaskkata.repository.InMemoryOrderRepository;
+import it.gabrieletondi.telldontaskkata.useCase.approval.ApproveOrderRequest;
+import it.gabrieletondi.telldontaskkata.useCase.approval.OrderApprovalUseCase;
+import it.gabrieletondi.telldontaskkata.useCase.dispatch.OrderMailboxExecutor;
+import it.gabrieletondi.telldontaskkata.useCase.rejection.RejectOrderRequest;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentRequest;
+import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentUseCase;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class OrderMailboxExecutorTest {
+
+  private static final int ORDERS = 500;
+
+  private final AtomicInteger versionConflicts = new AtomicInteger();
+  private final InMemoryOrderRepository orderRepository = new InMemoryOrderRepository() {
+    @Override
+    public boolean compareAndSave(Order order) {
+      final boolean saved = super.compareAndSave(order);
+      if (!saved) {
+        versionConflicts.incrementAndGet();
+      }
+      return saved;
+    }
+  };
+  private final OrderApprovalUseCase approval = new OrderApprovalUseCase(orderRepository);
+  private final OrderShipmentUseCase shipment = new OrderShipmentUseCase(orderRepository, Order::ship);
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+  @After
+  public void stopExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void requestsForAnOrderRunInSubmissionOrder() throws Exception {
+    final OrderMailboxExecutor mailboxes = new OrderMailboxExecutor(approval, shipment, executor, 16, 4 * ORDERS);
+    final List<CompletableFuture<TransitionOutcome>> approvals = new ArrayList<>();
+    final List<CompletableFuture<TransitionOutcome>> rejections = new ArrayList<>();
+    final List<CompletableFuture<TransitionOutcome>> shipments = new ArrayList<>();
+    for (int id = 0; id < ORDERS; id++) {
+      orderRepository.save(anOrder().withId(id).thatIsCreated().build());
+    }
+
+    for (int id = 0; id < ORDERS; id++) {
+      approvals.add(mailboxes.submit(ApproveOrderRequest.forOrderWith(id)));
+      rejections.add(mailboxes.submit(RejectOrderRequest.forOrderWith(id)));
+      shipments.add(mailboxes.submit(OrderShipmentRequest.forOrderWith(id)));
+    }
+
+    for (int id = 0; id < ORDERS; id++) {
+      assertEquals(TransitionOutcome.APPLIED, approvals.get(id).get());
+      assertEquals(TransitionOutcome.APPROVED_ORDER_CANNOT_BE_REJECTED, rejections.get(id).get());
+      assertEquals(TransitionOutcome.APPLIED, shipments.get(id).get());
+      assertTrue(orderRepository.orderWith(id).has(Shipped.INSTANCE));
+    }
+    assertEquals(0, versionConflicts.get());
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void aFullMailboxRejectsFurtherRequests() {
+    final List<Runnable> neverRun = new ArrayList<>();
+    final OrderMailboxExecutor mailboxes = new OrderMailboxExecutor(approval, shipment, neverRun::add, 1, 2);
+
+    mailboxes.submit(ApproveOrderRequest.forOrderWith(1));
+    mailboxes.submit(ApproveOrderRequest.forOrderWith(2));
+    mailboxes.submit(ApproveOrderRequest.forOrderWith(3));
+  }
+
+  @Test
+  public void aDrainedMailboxAcceptsRequestsAgain() throws Exception {
+    final List<Runnable> pending = new ArrayList<>();
+    final OrderMailboxExecutor mailboxes = new OrderMailboxExecutor(approval, shipment, pending::add, 1, 1);
+    orderRepository.save(anOrder().withId(1).thatIsCreated().build());
+
+    final CompletableFuture<TransitionOutcome> first = mailboxes.submit(ApproveOrderRequest.forOrderWith(1));
+    pending.remove(0).run();
+    final CompletableFuture<TransitionOutcome> second = mailboxes.submit(ApproveOrderRequest.forOrderWith(1));
+    pending.remove(0).run();
+
+    assertEquals(TransitionOutcome.APPLIED, first.get());
+    assertEquals(TransitionOutcome.APPLIED, second.get());
+  }
+
+  @Test
+  public void requestsFailWhenTheExecutorRejectsTheirMailbox() throws Exception {
+    final AtomicInteger rejections = new AtomicInteger(1);
+    final OrderMailboxExecutor mailboxes = new OrderMailboxExecutor(approval, shipment, command -> {
+      if (rejections.getAndDecrement() > 0) {
+        throw new RejectedExecutionException("executor is saturated");
+      }
+      command.run();
+    }, 1, 2);
+    orderRepository.save(anOrder().withId(1).thatIsCreated().build());
+
+    final CompletableFuture<TransitionOutcome> rejected = mailboxes.submit(ApproveOrderRequest.forOrderWith(1));
+    final CompletableFuture<TransitionOutcome> accepted = mailboxes.submit(ApproveOrderRequest.forOrderWith(1));
+
+    try {
+      rejected.join();
+      fail("request ran although its mailbox was rejected");
+    } catch (CompletionException e) {
+      assertTrue(e.getCause() instanceof RejectedExecutionException);
+    }
+    assertEquals(TransitionOutcome.APPLIED, accepted.get());
+  }
+
+  @Test
+  public void aMailboxKeepsRunningAfterARequestThrowsAnError() throws Exception {
+    final AtomicInteger failingReads = new AtomicInteger(1);
+    final InMemoryOrderRepository failingRepository = new InMemoryOrderRepository() {
+      @Override
+      public Order orderWith(int orderId) {
+        if (failingReads.getAndDecrement() > 0) {
+          throw new OutOfMemoryError("no room for the order");
+        }
+        return super.orderWith(orderId);
+      }
+    };
+    final List<Runnable> pending = new ArrayList<>();
+    final OrderMailboxExecutor mailboxes = new OrderMailboxExecutor(
+        new OrderApprovalUseCase(failingRepository), shipment, pending::add, 1, 2);
+    failingRepository.save(anOrder().withId(1).thatIsCreated().build());
+
+    final CompletableFuture<TransitionOutcome> failed = mailboxes.submit(ApproveOrderRequest.forOrderWith(1));
+    final CompletableFuture<TransitionOutcome> next = mailboxes.submit(ApproveOrderRequest.forOrderWith(1));
+    try {
+      pending.remove(0).run();
+      fail("the mailbox swallowed an error");
+    } catch (OutOfMemoryError expected) {
+      pending.remove(0).run();
+    }
+
+    try {
+      failed.join();
+      fail("request completed although its transition threw");
+    } catch (CompletionException e) {
+      assertTrue(e.getCause() instanceof OutOfMemoryError);
+    }
+    assertEquals(TransitionOutcome.APPLIED, next.get());
+  }
+}
@@ -2,15 +2,24 @@ package it.gabrieletondi.telldontaskkata.useCase;
 
 import static it.gabrieletondi.telldontaskkata.useCase.OrderBuilder.anOrder;
 import static it.gabrieletondi.telldontaskkata.useCase.OrderBuilder.anOrderId;
+import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
 
+import it.gabrieletondi.telldontaskkata.domain.Approved;
 import it.gabrieletondi.telldontaskkata.domain.Order;
+import it.gabrieletondi.telldontaskkata.domain.Shipped;
+import it.gabrieletondi.telldontaskkata.domain.TransitionOutcome;
 import it.gabrieletondi.telldontaskkata.doubles.TestOrderRepository;
 import it.gabrieletondi.telldontaskkata.doubles.TestShipmentService;
+import it.gabrieletondi.telldontaskkata.repository.InMemoryOrderRepository;
+import it.gabrieletondi.telldontaskkata.service.ShipmentService;
 import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentRequest;
 import it.gabrieletondi.telldontaskkata.useCase.shipment.OrderShipmentUseCase;
 import it.gabrieletondi.telldontaskkata.useCase.shipment.invariants.OrderCannotBeShippedTwice;
 import it.gabrieletondi.telldontaskkata.useCase.shipment.invariants.OrderNotReadyForShippment;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Test;
 
 public class OrderShipmentUseCaseTest {
@@ -60,4 +69,74 @@ public class OrderShipmentUseCaseTest {
     assertTrue(shipmentService.orderIsNotShipped());
   }
 
+  @Test
+  public void invalidShipmentsCanBeReportedWithoutThrowing() throws Exception {
+    orderRepository.add(anOrder().withId(anOrderId).thatIsCreated().build());
+
+    assertEquals(TransitionOutcome.ORDER_NOT_READY_FOR_SHIPMENT,
+        shipment.tryRun(OrderShipmentRequest.forOrderWith(anOrderId)));
+
+    assertTrue(orderRepository.orderIsNotSaved());
+    assertTrue(shipmentService.orderIsNotShipped());
+  }
+
+  @Test
+  public void concurrentShipmentsOfAnOrderCallTheCarrierOnce() {
+    final InMemoryOrderRepository orders = new InMemoryOrderRepository();
+    orders.save(anOrder().withId(anOrderId).thatIsApproved().build());
+    final List<TransitionOutcome> concurrentOutcomes = new ArrayList<>();
+    final List<Order> shipped = new ArrayList<>();
+    final OrderShipmentUseCase[] shipments = new OrderShipmentUseCase[1];
+    final ShipmentService carrier = order -> {
+      shipped.add(order);
+      if (shipped.size() == 1) {
+        concurrentOutcomes.add(shipments[0].tryRun(OrderShipmentRequest.forOrderWith(anOrderId)));
+      }
+    };
+    shipments[0] = new OrderShipmentUseCase(orders, carrier);
+
+    assertEquals(TransitionOutcome.APPLIED, shipments[0].tryRun(OrderShipmentRequest.forOrderWith(anOrderId)));
+
+    assertEquals(1, shipped.size());
+    assertTrue(shipped.get(0).has(new Approved()));
+    assertEquals(TransitionOutcome.ORDER_CANNOT_BE_SHIPPED_TWICE, concurrentOutcomes.get(0));
+  }
+
+  @Test
+  public void putsTheOrderBackWhenTheCarrierFails() {
+    final InMemoryOrderRepository orders = new InMemoryOrderRepository();
+    orders.save(anOrder().withId(anOrderId).thatIsApproved().build());
+    final IllegalStateException carrierDown = new IllegalStateException("carrier down");
+    final OrderShipmentUseCase failingShipment = new OrderShipmentUseCase(orders, order -> {
+      throw carrierDown;
+    });
+
+    try {
+      failingShipment.run(OrderShipmentRequest.forOrderWith(anOrderId));
+      fail("the carrier failure should propagate");
+    } catch (IllegalStateException e) {
+      assertEquals(carrierDown, e);
+    }
+
+    assertTrue(orders.orderWith(anOrderId).has(new Approved()));
+    assertEquals(TransitionOutcome.APPLIED,
+        new OrderShipmentUseCase(orders, shipmentService).tryRun(OrderShipmentRequest.forOrderWith(anOrderId)));
+  }
+
+  @Test
+  public void leavesAnOrderChangedSinceTheClaimWhenTheCarrierFails() {
+    final InMemoryOrderRepository orders = new InMemoryOrderRepository();
+    orders.save(anOrder().withId(anOrderId).thatIsApproved().build());
+    final OrderShipmentUseCase failingShipment = new OrderShipmentUseCase(orders, order -> {
+      orders.save(orders.orderWith(anOrderId));
+      throw new IllegalStateException("carrier down");
+    });
+
+    try {
+      failingShipment.run(OrderShipmentRequest.forOrderWith(anOrderId));
+      fail("the carrier failure should propagate");
+    } catch (IllegalStateException expected) {
+      assertTrue(orders.orderWith(anOrderId).has(new Shipped()));
+    }
+  }
 }